@@ -3,6 +3,8 @@ package com.smartbear.ready.plugin.jira;
 import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.plugins.PluginAdapter;
 import com.eviware.soapui.plugins.PluginConfiguration;
+import com.smartbear.ready.plugin.jira.impl.IssueOutbox;
+import com.smartbear.ready.plugin.jira.impl.MetadataWarmUpService;
 
 @PluginConfiguration(groupId = "com.smartbear.ready.plugins",
         name = "JIRA Integration Plugin", version = "1.6.6",
@@ -10,6 +12,13 @@ import com.eviware.soapui.plugins.PluginConfiguration;
         infoUrl = "https://github.com/SmartBear/ready-jira-plugin/wiki",
         minimumReadyApiVersion = "3.49.0")
 public class PluginConfig extends PluginAdapter {
+    public PluginConfig() {
+        if (!SoapUI.isCommandLine()) {
+            MetadataWarmUpService.scheduleStartupWarmUp();
+            IssueOutbox.scheduleStartupDrain();
+        }
+    }
+
     @Override
     public boolean isActive() {
         return !SoapUI.isCommandLine();
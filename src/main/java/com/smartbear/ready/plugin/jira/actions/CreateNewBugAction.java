@@ -1,6 +1,7 @@
 package com.smartbear.ready.plugin.jira.actions;
 
 import com.atlassian.jira.rest.client.api.NamedEntity;
+import com.atlassian.jira.rest.client.api.domain.BasicIssue;
 import com.atlassian.jira.rest.client.api.domain.CimFieldInfo;
 import com.atlassian.jira.rest.client.api.domain.CustomFieldOption;
 import com.atlassian.jira.rest.client.api.domain.Version;
@@ -29,32 +30,59 @@ import com.eviware.x.form.support.XFormMultiSelectList;
 import com.google.inject.Inject;
 import com.smartbear.ready.plugin.jira.dialog.BugInfoDialogConsts;
 import com.smartbear.ready.plugin.jira.impl.AttachmentAddingResult;
+import com.smartbear.ready.plugin.jira.impl.BackgroundOperationsPanel;
+import com.smartbear.ready.plugin.jira.impl.IssueCreationRequest;
 import com.smartbear.ready.plugin.jira.impl.IssueCreationResult;
 import com.smartbear.ready.plugin.jira.impl.IssueInfoDialog;
+import com.smartbear.ready.plugin.jira.impl.IssueOutbox;
+import com.smartbear.ready.plugin.jira.impl.JiraApiCallResult;
 import com.smartbear.ready.plugin.jira.impl.JiraProvider;
+import com.smartbear.ready.plugin.jira.impl.ProjectPage;
 import com.smartbear.ready.plugin.jira.impl.SwingXScrollableFormDialogBuilder;
+import com.smartbear.ready.plugin.jira.impl.UsageHistory;
 import com.smartbear.ready.plugin.jira.impl.XFormDialogEx;
 import org.jdesktop.swingx.autocomplete.AutoCompleteDecorator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.swing.SwingUtilities;
 import java.awt.GraphicsEnvironment;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class CreateNewBugAction extends AbstractSoapUIAction<ModelItem> {
     public static final String TOOLBAR_BUTTON_CAPTION = "JIRA";
     public static final String SPECIFIES_THE_REQUIRED_FIELDS_TO_CREATE_NEW_ISSUE_IN_JIRA = "Populate the required fields to create a new JIRA issue";
     public static final String WORKSPACE_ITEM_SELECTED = "Unable to create a  JIRA item." + StringUtils.NEWLINE + "Select a project, test case or test suite in the Navigator.";
     public static final String NO_AVAILABLE_JIRA_PROJECTS = "Unable to retrieve information from JIRA." + StringUtils.NEWLINE + "Possible causes:" + StringUtils.NEWLINE + "  - The JIRA Integration plugin settings are invalid." + StringUtils.NEWLINE + " You might have specified email instead of username." + StringUtils.NEWLINE + "  - You do not have enough permissions in JIRA.";
-    public static final String NEW_ISSUE_DETAILS_FORM_NAME = "Creating a new JIRA item";
+    private static final String NO_PROJECT_SELECTED = "Select a project from the list and an item type.";
+    private static final String FILING_OPERATION = "%s in %s: %s";
+    private static final String ISSUE_FILED = "created %s";
+    private static final String FILING_FAILED = "failed: %s";
+    private static final String FILING_DELAYED = "JIRA unavailable, next attempt at %tT";
+    private static final String FILING_WAITING_FOR_SETTINGS = "waiting for new JIRA settings: %s";
+    private static final String FILING_REFUSED = "JIRA refused to create \"%s\": %s" + StringUtils.NEWLINE +
+            "Check the login, the password and the permissions in the JIRA Integration plugin settings; the item is filed once they change.";
+    private static final String ATTACHMENTS_FAILED = "created %s, some attachments failed";
+    private static final String TEST_CASE_SUMMARY = "%s: %s";
+    private static final String TEST_CASE_DESCRIPTION = "Test case: %s";
+    private static final String BULK_FILING_FAILED = "%d of %d items could not be created, see the JIRA background operations.";
     public static final String PLEASE_WAIT = "Please wait";
-    public static final String ADDING_ATTACHMENTS = "Adding attachments";
     public static final String READING_JIRA_SETTINGS_FOR_SELECTED_PROJECT_AND_ISSUE_TYPE = "Reading JIRA settings for the selected project and item type";
     public static final String READING_JIRA_SETTINGS = "Reading information from JIRA";
     public static final String TOOLBAR_ACTION_DESCRIPTION = "Create a new JIRA item";
@@ -65,7 +93,17 @@ public class CreateNewBugAction extends AbstractSoapUIAction<ModelItem> {
     private static final String MULTICHECKBOXES_CUSTOM_FIELD_TYPE = "com.atlassian.jira.plugin.system.customfieldtypes:multicheckboxes";
 
     protected String selectedProject, selectedIssueType;
+    //labels of the test cases under the navigator selection, and of the ones chosen to get an item each
+    private List<String> targetTestCases = new ArrayList<>();
+    private List<String> selectedTestCases = new ArrayList<>();
+    private ProjectPagesLoader projectPagesLoader;
     private static final Logger logger = LoggerFactory.getLogger(CreateNewBugAction.class);
+    //issue types of the project picked in the initial dialog, read without blocking the dialog
+    private static final ExecutorService issueTypesLoader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jira-issue-types-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public static final String DESCRIPTION_FIELD_NAME = "description";
     private static final List<String> skippedFieldKeys = Arrays.asList("summary",
@@ -100,13 +138,34 @@ public class CreateNewBugAction extends AbstractSoapUIAction<ModelItem> {
             return;
         }
         bugTrackerProvider.setActiveItem(target);
-        List<String> projects = bugTrackerProvider.getListOfAllProjects();
-        if (projects == null || projects.size() == 0) {
+        targetTestCases = getTestCases(target);
+        JiraApiCallResult<ProjectPage> firstProjectsPage = bugTrackerProvider.getProjectsPage(0, JiraProvider.PROJECTS_PAGE_SIZE);
+        if (!firstProjectsPage.isSuccess() || firstProjectsPage.getResult().getProjects().isEmpty()) {
             UISupport.showErrorMessage(NO_AVAILABLE_JIRA_PROJECTS);
             return;
         }
-        XFormDialog dialogOne = createInitialSetupDialog(bugTrackerProvider);
-        if (dialogOne.show()) {
+        XFormDialog dialogOne = createInitialSetupDialog(bugTrackerProvider, firstProjectsPage.getResult());
+        boolean projectSelected;
+        try {
+            if (projectPagesLoader != null) {
+                projectPagesLoader.start();
+            }
+            projectSelected = dialogOne.show();
+        } finally {
+            if (projectPagesLoader != null) {
+                projectPagesLoader.cancel();
+                projectPagesLoader = null;
+            }
+        }
+        if (projectSelected && (selectedProject == null || selectedIssueType == null)) {
+            UISupport.showErrorMessage(NO_PROJECT_SELECTED);
+            selectedProject = null;
+            selectedIssueType = null;
+            return;
+        }
+        if (projectSelected) {
+            selectedTestCases = getSelectedTestCases(dialogOne);
+            UsageHistory.recordUsage(selectedProject, selectedIssueType);
             XFormDialog dialogTwo = createIssueDetailsDialog(bugTrackerProvider, selectedProject, selectedIssueType);
             XFormDialogEx dialogTwoEx = (XFormDialogEx) dialogTwo;
             if (dialogTwoEx != null) {
@@ -114,7 +173,11 @@ public class CreateNewBugAction extends AbstractSoapUIAction<ModelItem> {
                 dialogTwoEx.setHeight(7 * screenHeight / 10);
             }
             if (dialogTwo != null && dialogTwo.show()) {
-                handleOkAction(bugTrackerProvider, dialogTwo);
+                if (selectedTestCases.isEmpty()) {
+                    handleOkAction(bugTrackerProvider, dialogTwo, selectedProject, selectedIssueType);
+                } else {
+                    handleBulkOkAction(bugTrackerProvider, dialogTwo, selectedProject, selectedIssueType, selectedTestCases);
+                }
             }
         } else {
             selectedProject = null;
@@ -122,129 +185,131 @@ public class CreateNewBugAction extends AbstractSoapUIAction<ModelItem> {
         }
     }
 
-    private class JiraIssueCreatorWorker implements Worker {
-        final JiraProvider bugTrackerProvider;
-        final String projectKey;
-        final String issueType;
-        final String summary;
-        final String description;
-        final Map<String, Object> extraValues;
-        IssueCreationResult result;
-
-        public JiraIssueCreatorWorker(JiraProvider bugTrackerProvider, String projectKey, String issueType,
-                                      String summary, String description, Map<String, Object> extraValues) {
-            this.bugTrackerProvider = bugTrackerProvider;
-            this.projectKey = projectKey;
-            this.issueType = issueType;
-            this.summary = summary;
-            this.description = description;
-            this.extraValues = extraValues;
-        }
-
-        @Override
-        public Object construct(XProgressMonitor xProgressMonitor) {
-            result = bugTrackerProvider.createIssue(projectKey, issueType, summary, description, extraValues);
-            return result;
-        }
+    private void handleOkAction(JiraProvider bugTrackerProvider, XFormDialog issueDetails, String projectKey, String issueType) {
+        StringToStringMap values = issueDetails.getValues();
+        String summary = values.get(BugInfoDialogConsts.ISSUE_SUMMARY, null);
+        String description = values.get(BugInfoDialogConsts.ISSUE_DESCRIPTION, null);
+        Map<String, Object> extraValues = getExtraValues(bugTrackerProvider, issueDetails, projectKey, issueType);
+        //the attachments are read right away, the selection in the navigator may change while the issue is filed
+        Map<String, InputStream> attachments = new LinkedHashMap<>();
+        if (issueDetails.getBooleanValue(BugInfoDialogConsts.ATTACH_READYAPI_LOG)) {
+            attachments.put(bugTrackerProvider.getActiveItemName() + ".log", bugTrackerProvider.getReadyApiLog());
+        }
+        if (issueDetails.getBooleanValue(BugInfoDialogConsts.ATTACH_PROJECT)) {
+            attachments.put(bugTrackerProvider.getRootProjectName() + ".xml", bugTrackerProvider.getRootProject());
+        }
+        String attachedFilePath = issueDetails.getValue(BugInfoDialogConsts.ATTACH_ANY_FILE);
+
+        //the issue is queued in the outbox and filed in the background, even while JIRA cannot be reached
+        BackgroundOperationsPanel.Operation operation = BackgroundOperationsPanel.startOperation(
+                String.format(FILING_OPERATION, issueType, projectKey, summary));
+        IssueCreationRequest request = new IssueCreationRequest(projectKey, issueType, summary, description, extraValues);
+        IssueOutbox.submit(bugTrackerProvider, request, attachments, attachedFilePath, new IssueOutbox.Listener() {
+            @Override
+            public void retryScheduled(String error, long nextAttemptAt) {
+                operation.update(String.format(FILING_DELAYED, nextAttemptAt));
+            }
 
-        @Override
-        public void finished() {
-        }
+            @Override
+            public void waitingForSettings(String error) {
+                operation.update(String.format(FILING_WAITING_FOR_SETTINGS, error));
+                SwingUtilities.invokeLater(() -> UISupport.showErrorMessage(String.format(FILING_REFUSED, summary, error)));
+            }
 
-        @Override
-        public boolean onCancel() {
-            return false;
-        }
+            @Override
+            public void filed(BasicIssue issue, String attachmentErrors) {
+                SwingUtilities.invokeLater(() -> onIssueFiled(bugTrackerProvider, issueDetails, projectKey, issueType,
+                        operation, new IssueCreationResult(issue), attachmentErrors));
+            }
 
-        public IssueCreationResult getResult() {
-            return result;
-        }
+            @Override
+            public void rejected(String error) {
+                SwingUtilities.invokeLater(() -> onIssueFiled(bugTrackerProvider, issueDetails, projectKey, issueType,
+                        operation, new IssueCreationResult(error), ""));
+            }
+        });
     }
 
-    private class JiraIssueAttachmentWorker implements Worker {
-        final JiraProvider bugTrackerProvider;
-        final IssueCreationResult creationResult;
-        final XFormDialog issueDetails;
-        StringBuilder resultError;
-        boolean isAttachmentSuccess;
-
-        public JiraIssueAttachmentWorker(JiraProvider bugTrackerProvider, IssueCreationResult creationResult,
-                                         XFormDialog issueDetails) {
-            this.bugTrackerProvider = bugTrackerProvider;
-            this.creationResult = creationResult;
-            this.issueDetails = issueDetails;
-        }
-
-        @Override
-        public Object construct(XProgressMonitor xProgressMonitor) {
-            isAttachmentSuccess = true;
-            URI newIssueAttachURI = null;
-            try {
-                newIssueAttachURI = new URI(creationResult.getIssue().getSelf().toString().concat("/attachments"));
-            } catch (URISyntaxException e) {
-                logger.error("[CreateNewBugAction][construct] Error while createIssue , newIssueAttachURI: {}", e.getMessage());
-            }
-            resultError = new StringBuilder();
-            if (issueDetails.getBooleanValue(BugInfoDialogConsts.ATTACH_READYAPI_LOG)) {
-                AttachmentAddingResult attachResult = bugTrackerProvider.attachFile(newIssueAttachURI,
-                        bugTrackerProvider.getActiveItemName() + ".log", bugTrackerProvider.getReadyApiLog());
-                if (!attachResult.getSuccess()) {
-                    isAttachmentSuccess = false;
-                    resultError.append(attachResult.getError());
-                    resultError.append("\r\n");
+    /**
+     * Files one item per test case chosen in the initial dialog, with the values of the details form, through the bulk
+     * creation API. Every item is listed on its own in the background operations; failed items are not filed again
+     * automatically since the other ones of the batch exist.
+     */
+    private void handleBulkOkAction(JiraProvider bugTrackerProvider, XFormDialog issueDetails, String projectKey, String issueType,
+                                    List<String> testCases) {
+        StringToStringMap values = issueDetails.getValues();
+        String summary = values.get(BugInfoDialogConsts.ISSUE_SUMMARY, null);
+        String description = values.get(BugInfoDialogConsts.ISSUE_DESCRIPTION, null);
+        Map<String, Object> extraValues = getExtraValues(bugTrackerProvider, issueDetails, projectKey, issueType);
+        //every item gets its own copy of the attachments, so they are read into memory once
+        Map<String, byte[]> attachments = new LinkedHashMap<>();
+        if (issueDetails.getBooleanValue(BugInfoDialogConsts.ATTACH_READYAPI_LOG)) {
+            readAttachment(attachments, bugTrackerProvider.getActiveItemName() + ".log", bugTrackerProvider.getReadyApiLog());
+        }
+        if (issueDetails.getBooleanValue(BugInfoDialogConsts.ATTACH_PROJECT)) {
+            readAttachment(attachments, bugTrackerProvider.getRootProjectName() + ".xml", bugTrackerProvider.getRootProject());
+        }
+        String attachedFilePath = issueDetails.getValue(BugInfoDialogConsts.ATTACH_ANY_FILE);
+
+        List<IssueCreationRequest> requests = new ArrayList<>();
+        List<BackgroundOperationsPanel.Operation> operations = new ArrayList<>();
+        for (String testCase : testCases) {
+            String testCaseSummary = String.format(TEST_CASE_SUMMARY, summary, testCase);
+            String testCaseDescription = StringUtils.isNullOrEmpty(description) ? String.format(TEST_CASE_DESCRIPTION, testCase)
+                    : description + "\n\n" + String.format(TEST_CASE_DESCRIPTION, testCase);
+            requests.add(new IssueCreationRequest(projectKey, issueType, testCaseSummary, testCaseDescription, extraValues));
+            operations.add(BackgroundOperationsPanel.startOperation(String.format(FILING_OPERATION, issueType, projectKey, testCaseSummary)));
+        }
+
+        bugTrackerProvider.createIssuesAsync(requests).thenAccept(results -> {
+            int failedItems = 0;
+            for (int i = 0; i < results.size(); i++) {
+                IssueCreationResult result = results.get(i);
+                BackgroundOperationsPanel.Operation operation = operations.get(i);
+                if (!result.getSuccess()) {
+                    failedItems++;
+                    operation.finish(String.format(FILING_FAILED, result.getError()), null);
+                    continue;
                 }
-            }
-
-            if (issueDetails.getBooleanValue(BugInfoDialogConsts.ATTACH_PROJECT)) {
-                AttachmentAddingResult attachResult = bugTrackerProvider.attachFile(newIssueAttachURI,
-                        bugTrackerProvider.getRootProjectName() + ".xml", bugTrackerProvider.getRootProject());
-                if (!attachResult.getSuccess()) {
-                    isAttachmentSuccess = false;
-                    resultError.append(attachResult.getError());
-                    resultError.append("\r\n");
+                Map<String, InputStream> itemAttachments = new LinkedHashMap<>();
+                for (Map.Entry<String, byte[]> attachment : attachments.entrySet()) {
+                    itemAttachments.put(attachment.getKey(), new ByteArrayInputStream(attachment.getValue()));
                 }
+                attachFiles(bugTrackerProvider, result, itemAttachments, attachedFilePath)
+                        .thenAccept(attachmentErrors -> finishOperation(bugTrackerProvider, issueType, operation, result, attachmentErrors));
             }
-
-            String attachAnyFileValue = issueDetails.getValue(BugInfoDialogConsts.ATTACH_ANY_FILE);
-            if (!StringUtils.isNullOrEmpty(issueDetails.getValue(BugInfoDialogConsts.ATTACH_ANY_FILE))) {
-                AttachmentAddingResult attachResult = bugTrackerProvider.attachFile(newIssueAttachURI, attachAnyFileValue);
-                if (!attachResult.getSuccess()) {
-                    isAttachmentSuccess = false;
-                    resultError.append(attachResult.getError());
-                }
+            if (failedItems > 0) {
+                String message = String.format(BULK_FILING_FAILED, failedItems, results.size());
+                SwingUtilities.invokeLater(() -> UISupport.showErrorMessage(message));
             }
+        }).exceptionally(error -> {
+            logger.error("[CreateNewBugAction].[handleBulkOkAction] Unable to file the items", error);
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            //the items already reported keep their outcome
+            for (BackgroundOperationsPanel.Operation operation : operations) {
+                operation.finish(String.format(FILING_FAILED, cause.getMessage()), null);
+            }
+            String message = String.format(BULK_FILING_FAILED, operations.size(), operations.size());
+            SwingUtilities.invokeLater(() -> UISupport.showErrorMessage(message));
+            return null;
+        });
+    }
 
-            return resultError;
-        }
-
-        @Override
-        public void finished() {
-
-        }
-
-        @Override
-        public boolean onCancel() {
-            return false;
-        }
-
-        public boolean getAttachmentSuccess() {
-            return isAttachmentSuccess;
+    private static void readAttachment(Map<String, byte[]> attachments, String fileName, InputStream inputStream) {
+        if (inputStream == null) {
+            return;
         }
-
-        public StringBuilder getResultError() {
-            return resultError;
+        try (InputStream input = inputStream) {
+            attachments.put(fileName, input.readAllBytes());
+        } catch (IOException e) {
+            logger.error("[CreateNewBugAction].[readAttachment] Unable to read {}: {}", fileName, e.getMessage());
         }
     }
 
-    private void handleOkAction(JiraProvider bugTrackerProvider, XFormDialog issueDetails) {
+    private Map<String, Object> getExtraValues(JiraProvider bugTrackerProvider, XFormDialog issueDetails, String projectKey, String issueType) {
         StringToStringMap values = issueDetails.getValues();
-        String summary = values.get(BugInfoDialogConsts.ISSUE_SUMMARY, null);
-        String description = values.get(BugInfoDialogConsts.ISSUE_DESCRIPTION, null);
-        String projectKey = selectedProject;
-        String issueType = selectedIssueType;
         Map<String, Object> extraValues = new HashMap<>();
-        for (Map.Entry<String, CimFieldInfo> entry : bugTrackerProvider.getProjectFields(projectKey)
-                .getOrDefault(projectKey, new HashMap<>()).getOrDefault(issueType, new HashMap<>()).entrySet()) {
+        for (Map.Entry<String, CimFieldInfo> entry : bugTrackerProvider.getIssueTypeFields(projectKey, issueType).entrySet()) {
             String key = entry.getKey();
             if (skippedFieldKeys.contains(key) &&
                     !key.equals(JiraProvider.VERSIONS_FIELD_NAME) &&
@@ -265,42 +330,88 @@ public class CreateNewBugAction extends AbstractSoapUIAction<ModelItem> {
                 extraValues.put(key, values.get(entry.getValue().getName()));
             }
         }
-        XProgressDialog issueCreationProgressDialog = UISupport.getDialogs().createProgressDialog(
-                NEW_ISSUE_DETAILS_FORM_NAME, 100, PLEASE_WAIT, false);
-        JiraIssueCreatorWorker worker = new JiraIssueCreatorWorker(bugTrackerProvider, projectKey,
-                issueType, summary, description, extraValues);
+        return extraValues;
+    }
+
+    private static CompletableFuture<String> attachFiles(JiraProvider bugTrackerProvider, IssueCreationResult creationResult,
+                                                         Map<String, InputStream> attachments, String filePath) {
+        URI newIssueAttachURI = null;
         try {
-            issueCreationProgressDialog.run(worker);
-        } catch (Exception e) {
+            newIssueAttachURI = new URI(creationResult.getIssue().getSelf().toString().concat("/attachments"));
+        } catch (URISyntaxException e) {
+            logger.error("[CreateNewBugAction][attachFiles] Error while createIssue , newIssueAttachURI: {}", e.getMessage());
+        }
+        List<CompletableFuture<AttachmentAddingResult>> uploads = new ArrayList<>();
+        for (Map.Entry<String, InputStream> attachment : attachments.entrySet()) {
+            uploads.add(bugTrackerProvider.attachFileAsync(newIssueAttachURI, attachment.getKey(), attachment.getValue()));
         }
-        IssueCreationResult result = worker.getResult();
-        if (result.getSuccess()) {
-            JiraIssueAttachmentWorker attachmentWorker =
-                    new JiraIssueAttachmentWorker(bugTrackerProvider, result, issueDetails);
-            XProgressDialog addingAttachmentProgressDialog =
-                    UISupport.getDialogs().createProgressDialog(ADDING_ATTACHMENTS, 100, PLEASE_WAIT, false);
-            try {
-                addingAttachmentProgressDialog.run(attachmentWorker);
-            } catch (Exception e) {
-            }
-
-            if (!attachmentWorker.getAttachmentSuccess()) {
-                UISupport.showErrorMessage(attachmentWorker.getResultError().toString());
-                if (issueDetails.show()) {
-                    handleOkAction(bugTrackerProvider, issueDetails);
+        if (!StringUtils.isNullOrEmpty(filePath)) {
+            uploads.add(bugTrackerProvider.attachFileAsync(newIssueAttachURI, filePath));
+        }
+        return CompletableFuture.allOf(uploads.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            StringBuilder resultError = new StringBuilder();
+            for (CompletableFuture<AttachmentAddingResult> upload : uploads) {
+                AttachmentAddingResult attachResult = upload.join();
+                if (!attachResult.getSuccess()) {
+                    resultError.append(attachResult.getError());
+                    resultError.append("\r\n");
                 }
-            } else {
-                IssueInfoDialog.showDialog(issueType,
-                        bugTrackerProvider.getBugTrackerSettings().getUrl().concat("/browse/").concat(result.getIssue().getKey()),
-                        result.getIssue().getKey());//TODO: make link correct for all cases
             }
+            return resultError.toString();
+        });
+    }
 
-        } else {
+    private void onIssueFiled(JiraProvider bugTrackerProvider, XFormDialog issueDetails, String projectKey, String issueType,
+                              BackgroundOperationsPanel.Operation operation, IssueCreationResult result, String attachmentErrors) {
+        if (!result.getSuccess()) {
+            operation.finish(String.format(FILING_FAILED, result.getError()), null);
             UISupport.showErrorMessage(result.getError());
             if (issueDetails.show()) {
-                handleOkAction(bugTrackerProvider, issueDetails);
+                handleOkAction(bugTrackerProvider, issueDetails, projectKey, issueType);
             }
+            return;
         }
+
+        finishOperation(bugTrackerProvider, issueType, operation, result, attachmentErrors);
+        if (!attachmentErrors.isEmpty()) {
+            //the issue exists, filing it again would create a duplicate
+            UISupport.showErrorMessage(attachmentErrors);
+        }
+    }
+
+    private static void finishOperation(JiraProvider bugTrackerProvider, String issueType, BackgroundOperationsPanel.Operation operation,
+                                        IssueCreationResult result, String attachmentErrors) {
+        String issueKey = result.getIssue().getKey();
+        String link = bugTrackerProvider.getBugTrackerSettings().getUrl().concat("/browse/").concat(issueKey);//TODO: make link correct for all cases
+        Runnable details = () -> IssueInfoDialog.showDialog(issueType, link, issueKey);
+        operation.finish(String.format(attachmentErrors.isEmpty() ? ISSUE_FILED : ATTACHMENTS_FAILED, issueKey), details);
+    }
+
+    /**
+     * Lists the test cases under the selected test suite or project, labelled with their suite when a project is selected.
+     */
+    private static List<String> getTestCases(ModelItem target) {
+        List<String> testCases = new ArrayList<>();
+        if (target instanceof TestSuite) {
+            for (TestCase testCase : ((TestSuite) target).getTestCaseList()) {
+                testCases.add(testCase.getName());
+            }
+        } else if (target instanceof WsdlProject) {
+            for (TestSuite testSuite : ((WsdlProject) target).getTestSuiteList()) {
+                for (TestCase testCase : testSuite.getTestCaseList()) {
+                    testCases.add(testSuite.getName() + " / " + testCase.getName());
+                }
+            }
+        }
+        return testCases;
+    }
+
+    private static List<String> getSelectedTestCases(XFormDialog initialDialog) {
+        XFormField testCasesField = initialDialog.getFormField(BugInfoDialogConsts.TARGET_TEST_CASES);
+        if (!(testCasesField instanceof XFormMultiSelectList)) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.asList(StringUtils.toStringArray(((XFormMultiSelectList) testCasesField).getSelectedOptions())));
     }
 
     public static String[] IterableObjectsToNameArray(JiraProvider bugTrackerProvider, Iterable<Object> input, boolean addEmptyValue) {
@@ -341,30 +452,26 @@ public class CreateNewBugAction extends AbstractSoapUIAction<ModelItem> {
 
     private CimFieldInfo getFieldInfo(JiraProvider bugTrackerProvider, String selectedProject, String selectedIssueType, String fieldInfoKey) {
         logger.info("getFieldInfo.bugTrackerProvider : {}, selectedProject : {}, fieldInfoKey: {}", bugTrackerProvider.toString(), selectedProject, fieldInfoKey);
-        Map<String, Map<String, Map<String, CimFieldInfo>>> allFields = bugTrackerProvider.getProjectFields(selectedProject);
-        for (Map.Entry<String, CimFieldInfo> field : allFields.getOrDefault(selectedProject, new HashMap<>())
-                .getOrDefault(selectedIssueType, new HashMap<>()).entrySet()) {
-            String key = field.getKey();
-            if (key != null && key.equals(fieldInfoKey)) {
-                return field.getValue();
-            }
-        }
-        return null;
+        //the field maps are keyed by field id
+        return bugTrackerProvider.getIssueTypeFields(selectedProject, selectedIssueType).get(fieldInfoKey);
     }
 
     private void addExtraFields(XForm baseDialog, JiraProvider bugTrackerProvider, String selectedProject, String selectedIssueType) {
-        Map<String, Map<String, Map<String, CimFieldInfo>>> allFields = bugTrackerProvider.getProjectFields(selectedProject);
-        for (Map.Entry<String, CimFieldInfo> field : allFields.getOrDefault(selectedProject,
-                new HashMap<>()).getOrDefault(selectedIssueType, new HashMap<>()).entrySet()) {
+        Map<String, CimFieldInfo> issueTypeFields = bugTrackerProvider.getIssueTypeFields(selectedProject, selectedIssueType);
+        for (Map.Entry<String, CimFieldInfo> field : issueTypeFields.entrySet()) {
             String key = field.getKey();
             if (skippedFieldKeys.contains(key)) {
                 continue;
             }
             CimFieldInfo fieldInfo = field.getValue();
             XFormField newField;
-            if (fieldInfo.getAllowedValues() != null) {
-                boolean isMultiValueCustomField = isSpecifiedTypeCustomField(fieldInfo, MULTICHECKBOXES_CUSTOM_FIELD_TYPE) ||
-                        isSpecifiedTypeCustomField(fieldInfo, MULTISELECT_CUSTOM_FIELD_TYPE);
+            boolean isMultiValueCustomField = isSpecifiedTypeCustomField(fieldInfo, MULTICHECKBOXES_CUSTOM_FIELD_TYPE) ||
+                    isSpecifiedTypeCustomField(fieldInfo, MULTISELECT_CUSTOM_FIELD_TYPE);
+            if (FieldAutoComplete.isSupported(fieldInfo) && !isMultiValueCustomField) {
+                //JIRA looks the values up as the user types, so the allowed values are never parsed
+                newField = baseDialog.addComboBox(fieldInfo.getName(), new String[]{""}, fieldInfo.getName());
+                FieldAutoComplete.attach(newField, bugTrackerProvider, fieldInfo);
+            } else if (fieldInfo.getAllowedValues() != null) {
                 boolean addEmptyValue = isMultiValueCustomField ? false : !fieldInfo.isRequired();
                 String[] values = IterableObjectsToNameArray(bugTrackerProvider, fieldInfo.getAllowedValues(), addEmptyValue);
                 if (values.length > 0) {
@@ -397,6 +504,11 @@ public class CreateNewBugAction extends AbstractSoapUIAction<ModelItem> {
         return custom.equals(type);
     }
 
+    private static JiraApiCallResult<List<String>> searchProjectKeys(JiraProvider bugTrackerProvider, String query) {
+        JiraApiCallResult<ProjectPage> result = bugTrackerProvider.searchProjects(query, JiraProvider.PROJECTS_PAGE_SIZE);
+        return result.isSuccess() ? new JiraApiCallResult<>(result.getResult().getProjectKeys()) : new JiraApiCallResult<>(result.getError());
+    }
+
     private void makeComboBoxFieldEditable(XFormField field) {
         if (field instanceof com.eviware.x.impl.swing.JComboBoxFormField) {
             com.eviware.x.impl.swing.JComboBoxFormField comboBox = (com.eviware.x.impl.swing.JComboBoxFormField) field;
@@ -423,6 +535,7 @@ public class CreateNewBugAction extends AbstractSoapUIAction<ModelItem> {
 
         @Override
         public Object construct(XProgressMonitor xProgressMonitor) {
+            bugTrackerProvider.refreshVersionsAndComponents(selectedProject);
             SwingXScrollableFormDialogBuilder builder = new SwingXScrollableFormDialogBuilder(NEW_ISSUE_DIALOG_CAPTION +
                     selectedIssueType + " item in  [" + selectedProject + "] Project");
             XForm form = builder.createForm("Basic");
@@ -524,34 +637,134 @@ public class CreateNewBugAction extends AbstractSoapUIAction<ModelItem> {
         return worker.getDialog();
     }
 
+    /**
+     * Appends the remaining pages of the project list to the project combo while the initial dialog is open.
+     */
+    private class ProjectPagesLoader implements Runnable {
+        final JiraProvider bugTrackerProvider;
+        final XFormOptionsField projectsCombo;
+        final Set<String> knownProjects;
+        int nextStartAt;
+        volatile boolean cancelled;
+
+        public ProjectPagesLoader(JiraProvider bugTrackerProvider, XFormOptionsField projectsCombo,
+                                  List<String> knownProjects, int nextStartAt) {
+            this.bugTrackerProvider = bugTrackerProvider;
+            this.projectsCombo = projectsCombo;
+            this.knownProjects = new HashSet<>(knownProjects);
+            this.nextStartAt = nextStartAt;
+        }
+
+        public void start() {
+            Thread thread = new Thread(this, "jira-project-list-loader");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public void run() {
+            while (!cancelled) {
+                JiraApiCallResult<ProjectPage> page = bugTrackerProvider.getProjectsPage(nextStartAt, JiraProvider.PROJECTS_PAGE_SIZE);
+                if (!page.isSuccess()) {
+                    logger.warn("[CreateNewBugAction].[ProjectPagesLoader] Unable to load JIRA projects from {}: {}",
+                            nextStartAt, page.getError().getMessage());
+                    return;
+                }
+                List<String> newProjects = new ArrayList<>();
+                for (String projectKey : page.getResult().getProjectKeys()) {
+                    if (knownProjects.add(projectKey)) {
+                        newProjects.add(projectKey);
+                    }
+                }
+                if (!newProjects.isEmpty()) {
+                    SwingUtilities.invokeLater(() -> {
+                        if (!cancelled) {
+                            for (String projectKey : newProjects) {
+                                projectsCombo.addItem(projectKey);
+                            }
+                        }
+                    });
+                }
+                if (page.getResult().isLast() || page.getResult().getProjects().isEmpty()) {
+                    return;
+                }
+                nextStartAt = page.getResult().getNextStartAt();
+            }
+        }
+    }
+
+    private void loadIssueTypes(JiraProvider bugTrackerProvider, String projectKey, XFormOptionsField issueTypesCombo) {
+        issueTypesLoader.submit(() -> {
+            List<String> issueTypes = bugTrackerProvider.getListOfProjectIssueTypes(projectKey);
+            SwingUtilities.invokeLater(() -> {
+                //the user may have picked another project meanwhile
+                if (!projectKey.equals(selectedProject)) {
+                    return;
+                }
+                issueTypesCombo.setOptions(issueTypes.toArray());
+                if (!issueTypes.isEmpty()) {
+                    selectedIssueType = issueTypes.get(0);
+                    issueTypesCombo.setValue(selectedIssueType);
+                }
+            });
+        });
+    }
+
     private class InitialDialogWorker implements Worker {
         public static final String CHOOSE_REQUIRED_PROJECT_AND_ISSUE_TYPE = "Select a project and an item type.";
         final JiraProvider bugTrackerProvider;
+        final ProjectPage firstProjectsPage;
         XFormDialog dialog;
 
-        public InitialDialogWorker(JiraProvider bugTrackerProvider) {
+        public InitialDialogWorker(JiraProvider bugTrackerProvider, ProjectPage firstProjectsPage) {
             this.bugTrackerProvider = bugTrackerProvider;
+            this.firstProjectsPage = firstProjectsPage;
         }
 
         @Override
         public Object construct(XProgressMonitor xProgressMonitor) {
             XFormDialogBuilder builder = XFormFactory.createDialogBuilder(NEW_ISSUE_DIALOG_CAPTION + " item");
             XForm form = builder.createForm("Basic");
-            List<String> allProjectsList = bugTrackerProvider.getListOfAllProjects();
-            XFormOptionsField projectsCombo = form.addComboBox(BugInfoDialogConsts.TARGET_ISSUE_PROJECT,
-                    allProjectsList.toArray(), BugInfoDialogConsts.TARGET_ISSUE_PROJECT);
+            //only the first page is shown at once, the other ones are appended by ProjectPagesLoader
+            List<String> projectsList = firstProjectsPage.getProjectKeys();
             if (StringUtils.isNullOrEmpty(selectedProject)) {
-                selectedProject = (String) (allProjectsList.toArray()[0]);
+                selectedProject = projectsList.get(0);
+            } else if (!projectsList.contains(selectedProject)) {
+                projectsList.add(0, selectedProject);
             }
+            XFormOptionsField projectsCombo = form.addComboBox(BugInfoDialogConsts.TARGET_ISSUE_PROJECT,
+                    projectsList.toArray(), BugInfoDialogConsts.TARGET_ISSUE_PROJECT);
             projectsCombo.setValue(selectedProject);
+            if (!firstProjectsPage.isLast()) {
+                projectPagesLoader = new ProjectPagesLoader(bugTrackerProvider, projectsCombo, projectsList,
+                        firstProjectsPage.getNextStartAt());
+            }
+            if (projectsCombo instanceof com.eviware.x.impl.swing.JComboBoxFormField) {
+                //once the user searches, the search results replace the loaded project pages
+                new TypeAhead(((com.eviware.x.impl.swing.JComboBoxFormField) projectsCombo).getComponent(),
+                        query -> searchProjectKeys(bugTrackerProvider, query), () -> {
+                    if (projectPagesLoader != null) {
+                        projectPagesLoader.cancel();
+                    }
+                });
+            }
             Object[] currentProjectIssueTypes = bugTrackerProvider.getListOfProjectIssueTypes(selectedProject).toArray();
             final XFormOptionsField issueTypesCombo = form.addComboBox(BugInfoDialogConsts.ISSUE_TYPE,
                     currentProjectIssueTypes, BugInfoDialogConsts.ISSUE_TYPE);
             projectsCombo.addFormFieldListener(new XFormFieldListener() {
                 @Override
                 public void valueChanged(XFormField xFormField, String newValue, String oldValue) {
-                    selectedProject = newValue;
-                    issueTypesCombo.setOptions(bugTrackerProvider.getListOfProjectIssueTypes(selectedProject).toArray());
+                    //text typed in the combo is only a project once it matches one of the listed projects
+                    selectedProject = Arrays.asList(projectsCombo.getOptions()).contains(newValue) ? newValue : null;
+                    selectedIssueType = null;
+                    issueTypesCombo.setOptions(new Object[0]);
+                    if (selectedProject != null) {
+                        loadIssueTypes(bugTrackerProvider, selectedProject, issueTypesCombo);
+                    }
                 }
             });
             if (StringUtils.isNullOrEmpty(selectedIssueType)) {
@@ -565,6 +778,11 @@ public class CreateNewBugAction extends AbstractSoapUIAction<ModelItem> {
                     selectedIssueType = newValue;
                 }
             });
+            if (targetTestCases.size() > 1) {
+                //choosing test cases files one item per test case, in bulk
+                form.addComponent(BugInfoDialogConsts.TARGET_TEST_CASES,
+                        new XFormMultiSelectList(targetTestCases.toArray(new String[0])));
+            }
             dialog = builder.buildDialog(builder.buildOkCancelActions(), CHOOSE_REQUIRED_PROJECT_AND_ISSUE_TYPE, null);
             return dialog;
         }
@@ -584,8 +802,8 @@ public class CreateNewBugAction extends AbstractSoapUIAction<ModelItem> {
         }
     }
 
-    private XFormDialog createInitialSetupDialog(final JiraProvider bugTrackerProvider) {
-        InitialDialogWorker worker = new InitialDialogWorker(bugTrackerProvider);
+    private XFormDialog createInitialSetupDialog(final JiraProvider bugTrackerProvider, final ProjectPage firstProjectsPage) {
+        InitialDialogWorker worker = new InitialDialogWorker(bugTrackerProvider, firstProjectsPage);
         XProgressDialog readInitialInfoProgressDialog = UISupport.getDialogs().createProgressDialog(
                 READING_JIRA_SETTINGS, 100, PLEASE_WAIT, false);
         try {
@@ -0,0 +1,46 @@
+package com.smartbear.ready.plugin.jira.actions;
+
+import com.atlassian.jira.rest.client.api.domain.CimFieldInfo;
+import com.eviware.x.form.XFormField;
+import com.smartbear.ready.plugin.jira.impl.JiraApiCallResult;
+import com.smartbear.ready.plugin.jira.impl.JiraProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Suggests values for the form fields whose create metadata carries an autoCompleteUrl: users, labels and pickers.
+ * Multi-value fields are typed as a comma separated list, the suggestions then complete its last value.
+ */
+class FieldAutoComplete {
+    private static final String ARRAY_FIELD_TYPE = "array";
+
+    static boolean isSupported(CimFieldInfo fieldInfo) {
+        return fieldInfo.getAutoCompleteUri() != null;
+    }
+
+    static void attach(XFormField field, JiraProvider bugTrackerProvider, CimFieldInfo fieldInfo) {
+        if (!(field instanceof com.eviware.x.impl.swing.JComboBoxFormField)) {
+            return;
+        }
+        boolean isMultiValue = fieldInfo.getSchema() != null && ARRAY_FIELD_TYPE.equals(fieldInfo.getSchema().getType());
+        new TypeAhead(((com.eviware.x.impl.swing.JComboBoxFormField) field).getComponent(),
+                query -> isMultiValue ? suggestLastValue(bugTrackerProvider, fieldInfo, query)
+                        : bugTrackerProvider.getAutoCompleteSuggestions(fieldInfo.getAutoCompleteUri(), query), () -> { });
+    }
+
+    private static JiraApiCallResult<List<String>> suggestLastValue(JiraProvider bugTrackerProvider, CimFieldInfo fieldInfo, String text) {
+        int separator = text.lastIndexOf(',');
+        String typedValues = separator < 0 ? "" : text.substring(0, separator + 1) + " ";
+        JiraApiCallResult<List<String>> result = bugTrackerProvider.getAutoCompleteSuggestions(fieldInfo.getAutoCompleteUri(),
+                text.substring(separator + 1).trim());
+        if (!result.isSuccess()) {
+            return result;
+        }
+        List<String> completions = new ArrayList<>();
+        for (String suggestion : result.getResult()) {
+            completions.add(typedValues + suggestion);
+        }
+        return new JiraApiCallResult<>(completions);
+    }
+}
@@ -0,0 +1,119 @@
+package com.smartbear.ready.plugin.jira.actions;
+
+import com.smartbear.ready.plugin.jira.impl.JiraApiCallResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.DefaultComboBoxModel;
+import javax.swing.JComboBox;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Turns a combo into a type-ahead field: the text typed by the user is sent to JIRA once typing pauses, and
+ * the combo options are replaced by the matching values. The result of a query superseded by the next one is
+ * discarded. The typed text only becomes the selection when it is one of the options.
+ */
+class TypeAhead implements DocumentListener {
+    private static final Logger logger = LoggerFactory.getLogger(TypeAhead.class);
+
+    private static final int TYPING_DELAY = 300;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jira-type-ahead");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    interface Search {
+        JiraApiCallResult<List<String>> search(String query);
+    }
+
+    private final Search search;
+    private final JComboBox<Object> comboBox;
+    private final JTextComponent editor;
+    private final Runnable onSearchStarted;
+    private final Timer typingTimer;
+    //updated on the EDT only
+    private Future<?> runningSearch;
+    private int searchSequence;
+    private boolean updatingOptions;
+
+    @SuppressWarnings("unchecked")
+    TypeAhead(JComboBox<?> comboBox, Search search, Runnable onSearchStarted) {
+        this.search = search;
+        this.comboBox = (JComboBox<Object>) comboBox;
+        this.onSearchStarted = onSearchStarted;
+        comboBox.setEditable(true);
+        this.editor = (JTextComponent) comboBox.getEditor().getEditorComponent();
+        this.typingTimer = new Timer(TYPING_DELAY, e -> search(editor.getText()));
+        typingTimer.setRepeats(false);
+        editor.getDocument().addDocumentListener(this);
+    }
+
+    @Override
+    public void insertUpdate(DocumentEvent e) {
+        textChanged();
+    }
+
+    @Override
+    public void removeUpdate(DocumentEvent e) {
+        textChanged();
+    }
+
+    @Override
+    public void changedUpdate(DocumentEvent e) {
+        textChanged();
+    }
+
+    private void textChanged() {
+        if (!updatingOptions && editor.isFocusOwner()) {
+            typingTimer.restart();
+        }
+    }
+
+    private void search(String query) {
+        //not interrupted: the search may be a cache load other callers are waiting for, its result is dropped instead
+        if (runningSearch != null) {
+            runningSearch.cancel(false);
+        }
+        onSearchStarted.run();
+        int sequence = ++searchSequence;
+        runningSearch = executor.submit(() -> {
+            JiraApiCallResult<List<String>> result = search.search(query);
+            if (!result.isSuccess()) {
+                logger.warn("[TypeAhead].[search] Unable to search JIRA for \"{}\": {}", query, result.getError().getMessage());
+                return;
+            }
+            List<String> options = result.getResult();
+            SwingUtilities.invokeLater(() -> showOptions(sequence, options));
+        });
+    }
+
+    private void showOptions(int sequence, List<String> options) {
+        if (sequence != searchSequence) {
+            return;
+        }
+        String text = editor.getText();
+        DefaultComboBoxModel<Object> model = new DefaultComboBoxModel<>(options.toArray());
+        //keep what the user typed instead of selecting the first match, partial text is never selected
+        model.setSelectedItem(options.contains(text) ? text : null);
+        updatingOptions = true;
+        try {
+            comboBox.setModel(model);
+            editor.setText(text);
+        } finally {
+            updatingOptions = false;
+        }
+        if (!options.isEmpty() && comboBox.isShowing()) {
+            comboBox.showPopup();
+        }
+    }
+}
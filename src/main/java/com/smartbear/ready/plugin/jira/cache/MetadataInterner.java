@@ -0,0 +1,91 @@
+package com.smartbear.ready.plugin.jira.cache;
+
+import com.atlassian.jira.rest.client.api.domain.CimFieldInfo;
+import com.smartbear.ready.plugin.jira.parsers.LazyAllowedValues;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Shares identical field metadata between projects and issue types. Projects using the same schemes get
+ * equal field maps, fields and allowed-value lists; the first instance seen is kept and the later equal
+ * ones are replaced by it. The JRJC domain objects are immutable and compare by content, which makes
+ * sharing them safe. Instances no longer referenced by any cache are released.
+ */
+public class MetadataInterner {
+    private final Map<Object, WeakReference<Object>> canonicalInstances = new WeakHashMap<>();
+
+    public Map<String, Map<String, CimFieldInfo>> internProjectFields(Map<String, Map<String, CimFieldInfo>> projectFields) {
+        Map<String, Map<String, CimFieldInfo>> interned = new HashMap<>();
+        for (Map.Entry<String, Map<String, CimFieldInfo>> issueType : projectFields.entrySet()) {
+            interned.put(issueType.getKey(), internFields(issueType.getValue()));
+        }
+        return interned;
+    }
+
+    public Map<String, CimFieldInfo> internFields(Map<String, CimFieldInfo> fields) {
+        if (fields == null) {
+            return null;
+        }
+        Map<String, CimFieldInfo> canonicalFields = getCanonical(fields);
+        if (canonicalFields != null) {
+            return canonicalFields;
+        }
+        Map<String, CimFieldInfo> interned = new HashMap<>();
+        for (Map.Entry<String, CimFieldInfo> field : fields.entrySet()) {
+            interned.put(field.getKey(), internField(field.getValue()));
+        }
+        return intern(Collections.unmodifiableMap(interned));
+    }
+
+    public CimFieldInfo internField(CimFieldInfo field) {
+        if (field == null) {
+            return null;
+        }
+        CimFieldInfo canonicalField = getCanonical(field);
+        if (canonicalField != null) {
+            return canonicalField;
+        }
+        return intern(new CimFieldInfo(field.getId(), field.isRequired(), field.getName(), intern(field.getSchema()),
+                intern(field.getOperations()), internAllowedValues(field.getAllowedValues()), field.getAutoCompleteUri()));
+    }
+
+    private Iterable<Object> internAllowedValues(Iterable<Object> allowedValues) {
+        if (allowedValues == null) {
+            return null;
+        }
+        if (allowedValues instanceof LazyAllowedValues) {
+            //compared by raw JSON, so sharing does not parse the values
+            return intern(allowedValues);
+        }
+        List<Object> values = new ArrayList<>();
+        for (Object value : allowedValues) {
+            values.add(intern(value));
+        }
+        return intern(Collections.unmodifiableList(values));
+    }
+
+    private synchronized <T> T getCanonical(T value) {
+        WeakReference<Object> reference = canonicalInstances.get(value);
+        @SuppressWarnings("unchecked")
+        T canonical = reference == null ? null : (T) reference.get();
+        return canonical;
+    }
+
+    private synchronized <T> T intern(T value) {
+        if (value == null) {
+            return null;
+        }
+        T canonical = getCanonical(value);
+        if (canonical != null) {
+            return canonical;
+        }
+        canonicalInstances.put(value, new WeakReference<>(value));
+        return value;
+    }
+}
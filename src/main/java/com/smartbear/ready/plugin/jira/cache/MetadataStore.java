@@ -0,0 +1,484 @@
+package com.smartbear.ready.plugin.jira.cache;
+
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Persistent store of raw Jira metadata responses. There is one store directory per Jira base URL and
+ * credential identity, so switching accounts or instances never serves somebody else's metadata.
+ * Only the validators of the entries are kept in memory; every payload is a file of its own, read when an entry
+ * is asked for. Beyond {@link #MAX_ENTRIES} entries or {@link #MAX_STORE_BYTES} bytes of payloads, the least
+ * recently used entries are dropped.
+ */
+public class MetadataStore {
+    private static final Logger logger = LoggerFactory.getLogger(MetadataStore.class);
+
+    public static final int MAX_ENTRIES = 5000;
+    public static final long MAX_STORE_BYTES = 256L * 1024 * 1024;
+
+    private static final String PLUGIN_DIRECTORY = ".soapuios" + File.separator + "jira-plugin";
+    private static final String STORE_DIRECTORY = PLUGIN_DIRECTORY + File.separator + "metadata";
+    //random value of this installation the credentials are hashed with, so a store name cannot be brute-forced offline
+    private static final String SALT_FILE = "installation.salt";
+    private static final int SALT_LENGTH = 32;
+    //stores of earlier versions held every payload in a single file
+    private static final String LEGACY_STORE_FILE_EXTENSION = ".json";
+    private static final String INDEX_FILE = "index.json";
+    private static final String PAYLOAD_FILE_EXTENSION = ".payload";
+    private static final String ENTRIES = "entries";
+    private static final String STORED_AT = "storedAt";
+    private static final String LAST_USED_AT = "lastUsedAt";
+    private static final String SIZE = "size";
+    private static final String CONTENT_HASH = "contentHash";
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "lastModified";
+
+    private static final Map<File, MetadataStore> openStores = new ConcurrentHashMap<>();
+    private static byte[] installationSalt;
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jira-metadata-store-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final File directory;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean saveScheduled = new AtomicBoolean();
+
+    public interface Listener {
+        void entryChanged(String key);
+    }
+
+    public static class Entry {
+        private final File payloadFile;
+        private final long storedAt;
+        private final long size;
+        private final String contentHash;
+        private final String etag;
+        private final String lastModified;
+        private volatile long lastUsedAt;
+
+        Entry(File payloadFile, long storedAt, long size, String contentHash, String etag, String lastModified, long lastUsedAt) {
+            this.payloadFile = payloadFile;
+            this.storedAt = storedAt;
+            this.size = size;
+            this.contentHash = contentHash;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.lastUsedAt = lastUsedAt;
+        }
+
+        /**
+         * Reads the payload from disk, null when it cannot be read anymore.
+         */
+        public String getPayload() {
+            try {
+                return new String(Files.readAllBytes(payloadFile.toPath()), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                logger.warn("[MetadataStore].[getPayload] Unable to read Jira metadata cache {}: {}", payloadFile, e.getMessage());
+                return null;
+            }
+        }
+
+        public long getStoredAt() {
+            return storedAt;
+        }
+
+        public String getContentHash() {
+            return contentHash;
+        }
+
+        /**
+         * Validators sent by Jira with the payload, null when the server did not supply them.
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public boolean isExpired(long timeToLiveMillis) {
+            return System.currentTimeMillis() - storedAt > timeToLiveMillis;
+        }
+    }
+
+    private MetadataStore(File directory) {
+        this.directory = directory;
+    }
+
+    public static MetadataStore open(String baseUrl, String identity) {
+        File storesDirectory = new File(System.getProperty("user.home"), STORE_DIRECTORY);
+        String target = targetOf(baseUrl, identity);
+        File legacyStoreFile = new File(storesDirectory, target + LEGACY_STORE_FILE_EXTENSION);
+        if (legacyStoreFile.isFile() && !legacyStoreFile.delete()) {
+            logger.warn("[MetadataStore].[open] Unable to delete the former Jira metadata cache {}", legacyStoreFile);
+        }
+        return openStores.computeIfAbsent(new File(storesDirectory, target), key -> {
+            MetadataStore store = new MetadataStore(key);
+            store.load();
+            return store;
+        });
+    }
+
+    /**
+     * Returns an opaque key of the Jira instance and identity, which never reveals the credentials.
+     */
+    public static String targetOf(String baseUrl, String identity) {
+        return sha256(normalizeUrl(baseUrl) + "\n" + identity);
+    }
+
+    /**
+     * Identifies the credentials the metadata is read with, so permission-scoped metadata is never served after a
+     * password change or to another credential of the same login. The password is hashed with the installation salt.
+     */
+    public static String identityOf(String login, String password) {
+        String credential = saltedHash(password == null ? "" : password);
+        if (login != null && !login.isBlank()) {
+            return "user:" + login.trim().toLowerCase() + ":" + credential;
+        }
+        return "token:" + credential;
+    }
+
+    /**
+     * Identifies the account alone, which outlives a password change.
+     */
+    public static String accountOf(String login, String password) {
+        if (login != null && !login.isBlank()) {
+            return "user:" + login.trim().toLowerCase();
+        }
+        return "token:" + saltedHash(password == null ? "" : password);
+    }
+
+    public Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.lastUsedAt = System.currentTimeMillis();
+        }
+        return entry;
+    }
+
+    public boolean put(String key, String payload) {
+        return put(key, payload, null, null);
+    }
+
+    /**
+     * Stores a payload with its validators and returns true when it differs from the previously stored one.
+     */
+    public boolean put(String key, String payload, String etag, String lastModified) {
+        String contentHash = sha256(payload);
+        File payloadFile = new File(directory, sha256(key) + PAYLOAD_FILE_EXTENSION);
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        Entry previous;
+        boolean changed;
+        //the payload file and its entry are updated together, see replace
+        synchronized (this) {
+            previous = entries.get(key);
+            changed = previous == null || !previous.getContentHash().equals(contentHash);
+            if (changed) {
+                try {
+                    writePayload(payloadFile, bytes);
+                } catch (IOException e) {
+                    logger.warn("[MetadataStore].[put] Unable to write Jira metadata cache {}: {}", payloadFile, e.getMessage());
+                    return changed;
+                }
+            }
+            long now = System.currentTimeMillis();
+            entries.put(key, new Entry(payloadFile, now, bytes.length, contentHash, etag, lastModified, now));
+        }
+        evict();
+        scheduleSave();
+        if (changed && previous != null) {
+            for (Listener listener : listeners) {
+                listener.entryChanged(key);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Replaces the payload of an entry with a locally amended copy, unless the entry no longer holds the payload with
+     * the given content hash. The validators and the age of the entry are kept and the listeners are not told, the
+     * caller already holds the amended data.
+     */
+    public synchronized boolean replace(String key, String contentHash, String payload) {
+        Entry previous = entries.get(key);
+        if (previous == null || !previous.getContentHash().equals(contentHash)) {
+            return false;
+        }
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        try {
+            writePayload(previous.payloadFile, bytes);
+        } catch (IOException e) {
+            logger.warn("[MetadataStore].[replace] Unable to write Jira metadata cache {}: {}", previous.payloadFile, e.getMessage());
+            return false;
+        }
+        entries.put(key, new Entry(previous.payloadFile, previous.getStoredAt(), bytes.length, sha256(payload),
+                previous.getEtag(), previous.getLastModified(), previous.lastUsedAt));
+        evict();
+        scheduleSave();
+        return true;
+    }
+
+    public List<String> getKeys() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    /**
+     * Marks an entry as fresh again, after Jira answered that it has not been modified.
+     */
+    public void touch(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            long now = System.currentTimeMillis();
+            entries.replace(key, entry, new Entry(entry.payloadFile, now, entry.size, entry.getContentHash(),
+                    entry.getEtag(), entry.getLastModified(), now));
+            scheduleSave();
+        }
+    }
+
+    public void clear() {
+        for (String key : new ArrayList<>(entries.keySet())) {
+            remove(key);
+        }
+        scheduleSave();
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null && !entry.payloadFile.delete() && entry.payloadFile.exists()) {
+            logger.warn("[MetadataStore].[remove] Unable to delete Jira metadata cache {}", entry.payloadFile);
+        }
+    }
+
+    /**
+     * Drops the least recently used entries while the store is over its limits.
+     */
+    private synchronized void evict() {
+        long totalSize = 0;
+        for (Entry entry : entries.values()) {
+            totalSize += entry.size;
+        }
+        if (entries.size() <= MAX_ENTRIES && totalSize <= MAX_STORE_BYTES) {
+            return;
+        }
+        List<Map.Entry<String, Entry>> byLastUse = new ArrayList<>(entries.entrySet());
+        byLastUse.sort(Comparator.comparingLong(entry -> entry.getValue().lastUsedAt));
+        int count = entries.size();
+        for (Map.Entry<String, Entry> entry : byLastUse) {
+            if (count <= MAX_ENTRIES && totalSize <= MAX_STORE_BYTES) {
+                break;
+            }
+            remove(entry.getKey());
+            count--;
+            totalSize -= entry.getValue().size;
+        }
+    }
+
+    private void writePayload(File payloadFile, byte[] bytes) throws IOException {
+        Files.createDirectories(directory.toPath());
+        //concurrent writes of the same entry each get their own temporary file
+        Path tempFile = Files.createTempFile(directory.toPath(), payloadFile.getName(), ".tmp");
+        Files.write(tempFile, bytes);
+        Files.move(tempFile, payloadFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void load() {
+        File indexFile = new File(directory, INDEX_FILE);
+        if (!indexFile.isFile()) {
+            return;
+        }
+        try {
+            JSONObject root = new JSONObject(new String(Files.readAllBytes(indexFile.toPath()), StandardCharsets.UTF_8));
+            JSONObject storedEntries = root.getJSONObject(ENTRIES);
+            Iterator keys = storedEntries.keys();
+            while (keys.hasNext()) {
+                String key = (String) keys.next();
+                JSONObject storedEntry = storedEntries.getJSONObject(key);
+                File payloadFile = new File(directory, sha256(key) + PAYLOAD_FILE_EXTENSION);
+                //an entry whose payload got lost is fetched again
+                if (!payloadFile.isFile()) {
+                    continue;
+                }
+                long storedAt = storedEntry.getLong(STORED_AT);
+                entries.put(key, new Entry(payloadFile, storedAt, storedEntry.optLong(SIZE, payloadFile.length()),
+                        storedEntry.getString(CONTENT_HASH), storedEntry.optString(ETAG, null),
+                        storedEntry.optString(LAST_MODIFIED, null), storedEntry.optLong(LAST_USED_AT, storedAt)));
+            }
+            evict();
+            logger.info("[MetadataStore].[load] {} cached Jira metadata entries loaded from {}", entries.size(), directory);
+        } catch (IOException | JSONException e) {
+            logger.warn("[MetadataStore].[load] Unable to read Jira metadata cache {}: {}", indexFile, e.getMessage());
+            entries.clear();
+        }
+    }
+
+    private void scheduleSave() {
+        if (saveScheduled.compareAndSet(false, true)) {
+            writer.submit(this::save);
+        }
+    }
+
+    private void save() {
+        saveScheduled.set(false);
+        try {
+            JSONObject storedEntries = new JSONObject();
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                JSONObject storedEntry = new JSONObject();
+                storedEntry.put(STORED_AT, entry.getValue().getStoredAt());
+                storedEntry.put(LAST_USED_AT, entry.getValue().lastUsedAt);
+                storedEntry.put(SIZE, entry.getValue().size);
+                storedEntry.put(CONTENT_HASH, entry.getValue().getContentHash());
+                storedEntry.putOpt(ETAG, entry.getValue().getEtag());
+                storedEntry.putOpt(LAST_MODIFIED, entry.getValue().getLastModified());
+                storedEntries.put(entry.getKey(), storedEntry);
+            }
+            JSONObject root = new JSONObject();
+            root.put(ENTRIES, storedEntries);
+
+            Files.createDirectories(directory.toPath());
+            File indexFile = new File(directory, INDEX_FILE);
+            File tempFile = new File(directory, INDEX_FILE + ".tmp");
+            Files.write(tempFile.toPath(), root.toString().getBytes(StandardCharsets.UTF_8));
+            Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | JSONException e) {
+            logger.warn("[MetadataStore].[save] Unable to write Jira metadata cache {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static String normalizeUrl(String url) {
+        String normalized = url == null ? "" : url.trim().toLowerCase();
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    private static String sha256(String value) {
+        try {
+            return toHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String saltedHash(String value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(getInstallationSalt(), "HmacSHA256"));
+            return toHex(mac.doFinal(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Reads the salt of this installation, creating it on first use. The stores named before the salt existed are
+     * deleted then, as their names were derived from unsalted credentials.
+     */
+    private static synchronized byte[] getInstallationSalt() {
+        if (installationSalt != null) {
+            return installationSalt;
+        }
+        File saltFile = new File(System.getProperty("user.home"), PLUGIN_DIRECTORY + File.separator + SALT_FILE);
+        try {
+            if (!saltFile.isFile()) {
+                createSalt(saltFile);
+            }
+            byte[] salt = Files.readAllBytes(saltFile.toPath());
+            if (salt.length == SALT_LENGTH) {
+                installationSalt = salt;
+                return salt;
+            }
+            //cut short by a crash, it is created again by the next session
+            logger.warn("[MetadataStore].[getInstallationSalt] Ignoring the malformed salt {}", saltFile);
+            Files.delete(saltFile.toPath());
+        } catch (IOException e) {
+            logger.warn("[MetadataStore].[getInstallationSalt] Unable to read or create the salt {}: {}", saltFile, e.getMessage());
+        }
+        //the stores of this session are then never found again, which is safe
+        installationSalt = new byte[SALT_LENGTH];
+        new SecureRandom().nextBytes(installationSalt);
+        return installationSalt;
+    }
+
+    private static void createSalt(File saltFile) throws IOException {
+        byte[] salt = new byte[SALT_LENGTH];
+        new SecureRandom().nextBytes(salt);
+        Files.createDirectories(saltFile.getParentFile().toPath());
+        try {
+            Files.write(saltFile.toPath(), salt, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
+        } catch (FileAlreadyExistsException e) {
+            //another ReadyAPI instance created it first
+            return;
+        }
+        try {
+            Files.setPosixFilePermissions(saltFile.toPath(), PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            //the user home directory protects the file on systems without POSIX permissions
+        }
+        deleteUnsaltedStores();
+    }
+
+    private static void deleteUnsaltedStores() {
+        File[] stores = new File(System.getProperty("user.home"), STORE_DIRECTORY).listFiles(File::isDirectory);
+        if (stores == null) {
+            return;
+        }
+        for (File store : stores) {
+            File[] files = store.listFiles();
+            for (File file : files == null ? new File[0] : files) {
+                file.delete();
+            }
+            if (!store.delete()) {
+                logger.warn("[MetadataStore].[deleteUnsaltedStores] Unable to delete the Jira metadata cache {}", store);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.smartbear.ready.plugin.jira.cache;
+
+import com.atlassian.jira.rest.client.api.domain.CimFieldInfo;
+import com.smartbear.ready.plugin.jira.parsers.LazyAllowedValues;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Rough estimates, in bytes, of the heap held by cached Jira metadata. They only need to be proportional
+ * to the real footprint: allowed values, versions and components dominate it on large projects.
+ */
+public class MetadataWeigher {
+    private static final long OBJECT_OVERHEAD = 64;
+    //an allowed value is a domain object holding a self URI, an id, a name and often a description
+    private static final long ALLOWED_VALUE_WEIGHT = 256;
+
+    public static long weighProjectFields(Map<String, Map<String, CimFieldInfo>> issueTypes) {
+        long weight = OBJECT_OVERHEAD;
+        for (Map.Entry<String, Map<String, CimFieldInfo>> issueType : issueTypes.entrySet()) {
+            weight += weigh(issueType.getKey()) + weighFields(issueType.getValue());
+        }
+        return weight;
+    }
+
+    public static long weighFields(Map<String, CimFieldInfo> fields) {
+        long weight = OBJECT_OVERHEAD;
+        if (fields == null) {
+            return weight;
+        }
+        for (Map.Entry<String, CimFieldInfo> field : fields.entrySet()) {
+            weight += weigh(field.getKey()) + weigh(field.getValue());
+        }
+        return weight;
+    }
+
+    public static long weigh(CimFieldInfo fieldInfo) {
+        if (fieldInfo == null) {
+            return 0;
+        }
+        long weight = OBJECT_OVERHEAD * 2 + weigh(fieldInfo.getId()) + weigh(fieldInfo.getName());
+        if (fieldInfo.getAllowedValues() instanceof LazyAllowedValues) {
+            LazyAllowedValues allowedValues = (LazyAllowedValues) fieldInfo.getAllowedValues();
+            //raw JSON characters, plus the parsed domain objects once a form field needed them
+            weight += 2L * allowedValues.getRawLength();
+            if (allowedValues.isMaterialized()) {
+                weight += count(allowedValues) * ALLOWED_VALUE_WEIGHT;
+            }
+        } else if (fieldInfo.getAllowedValues() != null) {
+            weight += count(fieldInfo.getAllowedValues()) * ALLOWED_VALUE_WEIGHT;
+        }
+        return weight;
+    }
+
+    /**
+     * The indexed values are the ones of the cached fields, only the list and map entries of the index count.
+     */
+    public static long weighNameIndex(NameIndex<?> index) {
+        return OBJECT_OVERHEAD * 2 + index.size() * OBJECT_OVERHEAD;
+    }
+
+    private static long weigh(String value) {
+        return value == null ? 0 : OBJECT_OVERHEAD + 2L * value.length();
+    }
+
+    private static long count(Iterable<?> values) {
+        if (values == null) {
+            return 0;
+        }
+        if (values instanceof Collection) {
+            return ((Collection<?>) values).size();
+        }
+        long count = 0;
+        for (Object ignored : values) {
+            count++;
+        }
+        return count;
+    }
+}
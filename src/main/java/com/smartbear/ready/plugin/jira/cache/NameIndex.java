@@ -0,0 +1,46 @@
+package com.smartbear.ready.plugin.jira.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable list of metadata values indexed by name, built once per metadata load so that looking up the
+ * priority, issue type or version chosen in the form does not scan the whole list. When several values
+ * share a name the first one wins, as it did with the former linear scans.
+ */
+public class NameIndex<T> implements Iterable<T> {
+    private final List<T> values;
+    private final Map<String, T> valuesByName;
+
+    public NameIndex(Iterable<? extends T> values, Function<? super T, String> nameFunction) {
+        List<T> valueList = new ArrayList<>();
+        Map<String, T> byName = new HashMap<>();
+        for (T value : values) {
+            valueList.add(value);
+            String name = nameFunction.apply(value);
+            if (name != null) {
+                byName.putIfAbsent(name, value);
+            }
+        }
+        this.values = Collections.unmodifiableList(valueList);
+        this.valuesByName = Collections.unmodifiableMap(byName);
+    }
+
+    public T get(String name) {
+        return name == null ? null : valuesByName.get(name);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return values.iterator();
+    }
+}
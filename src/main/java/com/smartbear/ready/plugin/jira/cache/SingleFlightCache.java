@@ -0,0 +1,184 @@
+package com.smartbear.ready.plugin.jira.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe cache that runs at most one load per key at a time: concurrent callers asking for a key
+ * that is being loaded wait for the running load instead of sending their own request to Jira.
+ * <p>
+ * A cache created with a weight budget evicts the least recently used entries once the estimated weight
+ * of its values exceeds the budget. Evicted values are loaded again on the next request.
+ */
+public class SingleFlightCache<K, V> {
+
+    public interface Loader<K, V> {
+        V load(K key) throws Exception;
+    }
+
+    public interface Weigher<V> {
+        long weigh(V value);
+    }
+
+    private static class WeightedValue<V> {
+        private final V value;
+        private final long weight;
+
+        WeightedValue(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    private long maxWeight;
+    private final Weigher<V> weigher;
+    //access ordered, so the first entry is the least recently used one; guarded by "this"
+    private final LinkedHashMap<K, WeightedValue<V>> values = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<K, CompletableFuture<V>> loadsInFlight = new ConcurrentHashMap<>();
+    private long totalWeight;
+    //incremented on every invalidation, so a load that started before it does not store outdated data
+    private long generation;
+
+    public SingleFlightCache() {
+        this(Long.MAX_VALUE, value -> 0);
+    }
+
+    public SingleFlightCache(long maxWeight, Weigher<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    public V get(K key, Loader<K, V> loader) throws ExecutionException, InterruptedException {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> runningLoad = loadsInFlight.putIfAbsent(key, load);
+        if (runningLoad != null) {
+            return runningLoad.get();
+        }
+
+        try {
+            long loadGeneration = getGeneration();
+            value = getIfPresent(key);
+            if (value == null) {
+                value = loader.load(key);
+                if (value != null) {
+                    store(key, value, loadGeneration);
+                }
+            }
+            load.complete(value);
+            return value;
+        } catch (ExecutionException e) {
+            load.completeExceptionally(e.getCause());
+            throw e;
+        } catch (InterruptedException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            throw new ExecutionException(e);
+        } finally {
+            loadsInFlight.remove(key, load);
+        }
+    }
+
+    public synchronized V getIfPresent(K key) {
+        WeightedValue<V> weightedValue = values.get(key);
+        return weightedValue == null ? null : weightedValue.value;
+    }
+
+    public void put(K key, V value) {
+        store(key, value, getGeneration());
+    }
+
+    /**
+     * Stores a value derived from cached data read at the given generation, unless the cache was invalidated since.
+     */
+    public void put(K key, V value, long generation) {
+        store(key, value, generation);
+    }
+
+    /**
+     * Drops a single entry, an expired one for instance. Unlike the invalidations, it does not discard the loads in flight.
+     */
+    public synchronized void discard(K key) {
+        remove(key);
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<K> condition) {
+        generation++;
+        Iterator<Map.Entry<K, WeightedValue<V>>> iterator = values.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, WeightedValue<V>> entry = iterator.next();
+            if (condition.test(entry.getKey())) {
+                totalWeight -= entry.getValue().weight;
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        values.clear();
+        totalWeight = 0;
+    }
+
+    public synchronized void setMaxWeight(long maxWeight) {
+        this.maxWeight = maxWeight;
+        evict();
+    }
+
+    public synchronized long getWeight() {
+        return totalWeight;
+    }
+
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    private void store(K key, V value, long loadGeneration) {
+        //weighing walks the value, so it is done outside of the lock
+        long weight = weigher.weigh(value);
+        synchronized (this) {
+            if (generation != loadGeneration) {
+                return;
+            }
+            remove(key);
+            //a value heavier than the whole budget is handed to the caller but never kept
+            if (weight > maxWeight) {
+                return;
+            }
+            values.put(key, new WeightedValue<>(value, weight));
+            totalWeight += weight;
+            evict();
+        }
+    }
+
+    private void remove(K key) {
+        WeightedValue<V> removed = values.remove(key);
+        if (removed != null) {
+            totalWeight -= removed.weight;
+        }
+    }
+
+    private void evict() {
+        Iterator<WeightedValue<V>> iterator = values.values().iterator();
+        while (totalWeight > maxWeight && iterator.hasNext()) {
+            totalWeight -= iterator.next().weight;
+            iterator.remove();
+        }
+    }
+}
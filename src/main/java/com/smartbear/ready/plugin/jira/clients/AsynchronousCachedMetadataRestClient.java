@@ -0,0 +1,305 @@
+package com.smartbear.ready.plugin.jira.clients;
+
+import com.atlassian.httpclient.api.HttpClient;
+import com.atlassian.httpclient.api.Request;
+import com.atlassian.httpclient.api.Response;
+import com.atlassian.jira.rest.client.internal.async.AbstractAsynchronousRestClient;
+import com.atlassian.jira.rest.client.internal.json.JsonArrayParser;
+import com.atlassian.jira.rest.client.internal.json.JsonObjectParser;
+import com.atlassian.jira.rest.client.internal.json.JsonParser;
+import com.smartbear.ready.plugin.jira.cache.MetadataStore;
+import com.smartbear.ready.plugin.jira.parsers.MetadataPage;
+import com.smartbear.ready.plugin.jira.parsers.MetadataPageJsonParser;
+import io.atlassian.util.concurrent.Promise;
+import io.atlassian.util.concurrent.Promises;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.core.UriBuilder;
+import java.lang.ref.SoftReference;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Serves metadata requests from the {@link MetadataStore} when possible and revalidates expired
+ * entries in the background (stale-while-revalidate).
+ * <p>
+ * Revalidation is conditional when Jira supplied an ETag or a Last-Modified date, and a payload whose
+ * content hash did not change is never parsed again: the previously parsed object is reused.
+ */
+public class AsynchronousCachedMetadataRestClient extends AbstractAsynchronousRestClient {
+    private static final Logger logger = LoggerFactory.getLogger(AsynchronousCachedMetadataRestClient.class);
+
+    private static final int NOT_MODIFIED = 304;
+
+    public interface PayloadPatch {
+        /**
+         * Amends a stored payload in place and tells whether anything changed.
+         */
+        boolean patch(JSONObject payload) throws JSONException;
+    }
+
+    private static class ParsedPayload {
+        private final String contentHash;
+        private final Class<?> parserClass;
+        private final Object value;
+
+        ParsedPayload(String contentHash, Class<?> parserClass, Object value) {
+            this.contentHash = contentHash;
+            this.parserClass = parserClass;
+            this.value = value;
+        }
+    }
+
+    private final URI baseUri;
+    private final Set<String> revalidatingKeys = ConcurrentHashMap.newKeySet();
+    //soft references: the provider keeps what it needs under its memory budget, this only avoids re-parsing
+    private final Map<String, SoftReference<ParsedPayload>> parsedPayloads = new ConcurrentHashMap<>();
+    private volatile MetadataStore metadataStore;
+    private volatile long timeToLiveMillis;
+    private volatile RequestLimiter requestLimiter;
+
+    public AsynchronousCachedMetadataRestClient(URI baseUri, HttpClient client) {
+        super(client);
+        this.baseUri = baseUri;
+    }
+
+    public URI getBaseUri() {
+        return baseUri;
+    }
+
+    public UriBuilder uriBuilder() {
+        return UriBuilder.fromUri(baseUri);
+    }
+
+    public void setMetadataStore(MetadataStore metadataStore, long timeToLiveMillis, RequestLimiter requestLimiter) {
+        this.metadataStore = metadataStore;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.requestLimiter = requestLimiter;
+    }
+
+    public <T> Promise<T> getAndParseCached(URI uri, JsonParser<?, T> parser) {
+        MetadataStore store = metadataStore;
+        if (store == null) {
+            ResponseHandler<T> parsingHandler = response -> parse(response.getEntity(), parser);
+            return callAndParse(client().newRequest(uri).setAccept("application/json").get(), parsingHandler);
+        }
+
+        String key = getCacheKey(uri);
+        MetadataStore.Entry entry = store.get(key);
+        if (entry != null) {
+            try {
+                T result = parseEntry(key, entry, parser);
+                if (entry.isExpired(timeToLiveMillis)) {
+                    revalidate(store, key, uri, entry);
+                }
+                return Promises.promise(result);
+            } catch (JSONException e) {
+                logger.warn("[AsynchronousCachedMetadataRestClient].[getAndParseCached] Dropping unreadable cache entry {}: {}", key, e.getMessage());
+            }
+        }
+
+        ResponseHandler<T> storingHandler = response -> {
+            String payload = response.getEntity();
+            T result = parse(payload, parser);
+            store.put(key, payload, response.getHeader("ETag"), response.getHeader("Last-Modified"));
+            MetadataStore.Entry storedEntry = store.get(key);
+            if (storedEntry != null) {
+                remember(key, storedEntry.getContentHash(), parser, result);
+            }
+            return result;
+        };
+        return callAndParse(client().newRequest(uri).setAccept("application/json").get(), storingHandler);
+    }
+
+    /**
+     * Loads every page of a paginated createmeta resource, each page being cached on its own. Once the first page
+     * tells the total, the remaining pages are requested in parallel; without a total they are followed one after another.
+     */
+    public <T> Promise<Iterable<T>> getAndParseAllPagesCached(IntFunction<URI> pageUri, MetadataPageJsonParser<T> parser) {
+        return getAndParseCached(pageUri.apply(0), parser).flatMap(firstPage -> {
+            if (firstPage.isLast() || !firstPage.getValues().iterator().hasNext()) {
+                return Promises.promise(firstPage.getValues());
+            }
+            int nextStartAt = firstPage.getStartAt() + size(firstPage.getValues());
+            if (firstPage.getTotal() == null) {
+                return getAndParseRemainingPagesCached(pageUri, parser, nextStartAt, addAll(new ArrayList<>(), firstPage.getValues()));
+            }
+
+            int pageSize = Math.max(1, firstPage.getMaxResults());
+            List<Promise<MetadataPage<T>>> remainingPages = new ArrayList<>();
+            for (int startAt = nextStartAt; startAt < firstPage.getTotal(); startAt += pageSize) {
+                remainingPages.add(getAndParseCached(pageUri.apply(startAt), parser));
+            }
+            return Promises.when(remainingPages).map(pages -> {
+                List<T> values = addAll(new ArrayList<>(firstPage.getTotal()), firstPage.getValues());
+                for (MetadataPage<T> page : pages) {
+                    addAll(values, page.getValues());
+                }
+                return (Iterable<T>) values;
+            });
+        });
+    }
+
+    private <T> Promise<Iterable<T>> getAndParseRemainingPagesCached(IntFunction<URI> pageUri, MetadataPageJsonParser<T> parser,
+                                                                     int startAt, List<T> values) {
+        return getAndParseCached(pageUri.apply(startAt), parser).flatMap(page -> {
+            addAll(values, page.getValues());
+            if (page.isLast() || !page.getValues().iterator().hasNext()) {
+                return Promises.promise((Iterable<T>) values);
+            }
+            return getAndParseRemainingPagesCached(pageUri, parser, startAt + size(page.getValues()), values);
+        });
+    }
+
+    private static <T> List<T> addAll(List<T> values, Iterable<T> page) {
+        for (T value : page) {
+            values.add(value);
+        }
+        return values;
+    }
+
+    private static int size(Iterable<?> values) {
+        int size = 0;
+        for (Object ignored : values) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Sends the request without involving the metadata store, for short-lived results such as searches.
+     */
+    public <T> Promise<T> getAndParseUncached(URI uri, JsonParser<?, T> parser) {
+        return getAndParse(uri, parser);
+    }
+
+    /**
+     * Returns the raw body of an uncached request, for resources whose shape is not known in advance.
+     */
+    public Promise<String> getPayloadUncached(URI uri) {
+        ResponseHandler<String> payloadHandler = response -> response.getEntity();
+        return callAndParse(client().newRequest(uri).setAccept("application/json").get(), payloadHandler);
+    }
+
+    /**
+     * Amends the stored payloads whose keys match, keeping their validators and age. A payload that Jira replaced
+     * in the meantime is left alone.
+     */
+    public void patchCached(Predicate<String> keys, PayloadPatch patch) {
+        MetadataStore store = metadataStore;
+        if (store == null) {
+            return;
+        }
+        for (String key : store.getKeys()) {
+            if (!keys.test(key)) {
+                continue;
+            }
+            MetadataStore.Entry entry = store.get(key);
+            String payload = entry == null ? null : entry.getPayload();
+            if (payload == null) {
+                continue;
+            }
+            try {
+                JSONObject json = new JSONObject(payload);
+                if (patch.patch(json)) {
+                    store.replace(key, entry.getContentHash(), json.toString());
+                }
+            } catch (JSONException e) {
+                logger.warn("[AsynchronousCachedMetadataRestClient].[patchCached] Unable to patch cache entry {}: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    private <T> T parseEntry(String key, MetadataStore.Entry entry, JsonParser<?, T> parser) throws JSONException {
+        SoftReference<ParsedPayload> reference = parsedPayloads.get(key);
+        ParsedPayload parsed = reference == null ? null : reference.get();
+        if (parsed != null && parsed.parserClass == parser.getClass() && parsed.contentHash.equals(entry.getContentHash())) {
+            @SuppressWarnings("unchecked")
+            T value = (T) parsed.value;
+            return value;
+        }
+        String payload = entry.getPayload();
+        if (payload == null) {
+            throw new JSONException("the cached payload is missing");
+        }
+        T result = parse(payload, parser);
+        remember(key, entry.getContentHash(), parser, result);
+        return result;
+    }
+
+    private void remember(String key, String contentHash, JsonParser<?, ?> parser, Object value) {
+        if (value != null) {
+            parsedPayloads.put(key, new SoftReference<>(new ParsedPayload(contentHash, parser.getClass(), value)));
+        }
+    }
+
+    private void revalidate(MetadataStore store, String key, URI uri, MetadataStore.Entry entry) {
+        if (!revalidatingKeys.add(key)) {
+            return;
+        }
+        Request.Builder request = client().newRequest(uri).setAccept("application/json");
+        if (entry.getEtag() != null) {
+            request.setHeader("If-None-Match", entry.getEtag());
+        }
+        if (entry.getLastModified() != null) {
+            request.setHeader("If-Modified-Since", entry.getLastModified());
+        }
+        //revalidations share the parallel request limit with the loads they were triggered by
+        RequestLimiter limiter = requestLimiter;
+        if (limiter == null) {
+            request.get()
+                    .done(response -> revalidated(store, key, response))
+                    .fail(e -> revalidationFailed(key, e));
+            return;
+        }
+        limiter.<Response>submit(request::get).whenComplete((response, e) -> {
+            if (e != null) {
+                revalidationFailed(key, e);
+            } else {
+                revalidated(store, key, response);
+            }
+        });
+    }
+
+    private void revalidated(MetadataStore store, String key, Response response) {
+        revalidatingKeys.remove(key);
+        if (response.getStatusCode() == NOT_MODIFIED) {
+            store.touch(key);
+        } else if (response.isSuccessful()) {
+            //an unchanged payload keeps its content hash, so nothing is re-parsed
+            store.put(key, response.getEntity(), response.getHeader("ETag"), response.getHeader("Last-Modified"));
+        } else {
+            logger.warn("[AsynchronousCachedMetadataRestClient].[revalidate] Unable to revalidate {}: HTTP {}", key, response.getStatusCode());
+        }
+    }
+
+    private void revalidationFailed(String key, Throwable e) {
+        revalidatingKeys.remove(key);
+        logger.warn("[AsynchronousCachedMetadataRestClient].[revalidate] Unable to revalidate {}: {}", key, e.getMessage());
+    }
+
+    static String getCacheKey(URI uri) {
+        return uri.getRawQuery() == null ? uri.getRawPath() : uri.getRawPath() + "?" + uri.getRawQuery();
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T parse(String payload, JsonParser<?, T> parser) throws JSONException {
+        if (parser instanceof MetadataPageJsonParser) {
+            //createmeta pages are the largest responses, they are streamed instead of building a DOM
+            return (T) ((MetadataPageJsonParser<?>) parser).parse(payload);
+        }
+        return (T) (parser instanceof JsonObjectParser ?
+                ((JsonObjectParser) parser).parse(new JSONObject(payload)) :
+                ((JsonArrayParser) parser).parse(new JSONArray(payload)));
+    }
+}
@@ -0,0 +1,132 @@
+package com.smartbear.ready.plugin.jira.clients;
+
+import com.atlassian.httpclient.api.HttpClient;
+import com.atlassian.jira.rest.client.api.RestClientException;
+import com.atlassian.jira.rest.client.api.domain.BasicIssue;
+import com.atlassian.jira.rest.client.api.domain.input.IssueInput;
+import com.atlassian.jira.rest.client.api.domain.util.ErrorCollection;
+import com.atlassian.jira.rest.client.internal.async.AbstractAsynchronousRestClient;
+import com.atlassian.jira.rest.client.internal.json.BasicIssueJsonParser;
+import com.atlassian.jira.rest.client.internal.json.JsonObjectParser;
+import com.atlassian.jira.rest.client.internal.json.gen.IssueInputJsonGenerator;
+import com.atlassian.jira.rest.client.internal.json.gen.JsonGenerator;
+import io.atlassian.util.concurrent.Promise;
+import io.atlassian.util.concurrent.Promises;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONObject;
+
+import javax.ws.rs.core.UriBuilder;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates issues tagged with an idempotency key, kept in an issue property, and finds them again by that key.
+ * A creation retried after an unanswered request first looks for the issue, so it is normally not filed twice.
+ * <p>
+ * The candidates come from a JQL search, which reads the JIRA index: an issue created by the unanswered request is
+ * missed until JIRA indexed it, usually a few seconds, and a retry within that window files it again. Issue properties
+ * are not searchable without an app indexing them, so the search cannot ask for the key itself.
+ */
+public class AsynchronousIdempotentIssueRestClient extends AbstractAsynchronousRestClient {
+    public static final String IDEMPOTENCY_PROPERTY = "com.smartbear.ready.plugin.jira.idempotency";
+    private static final String IDEMPOTENCY_KEY = "key";
+    private static final int CANDIDATES_PAGE_SIZE = 50;
+    //the issues created in the project since the item was queued are looked through up to this number
+    private static final int MAX_CANDIDATES = 1000;
+    private static final int NOT_FOUND = 404;
+
+    private final URI baseUri;
+    private final IssueInputJsonGenerator issueInputJsonGenerator = new IssueInputJsonGenerator();
+    private final BasicIssueJsonParser basicIssueJsonParser = new BasicIssueJsonParser();
+
+    public AsynchronousIdempotentIssueRestClient(final URI baseUri, final HttpClient client) {
+        super(client);
+        this.baseUri = baseUri;
+    }
+
+    public Promise<BasicIssue> createIssue(final IssueInput issueInput, final String idempotencyKey) {
+        final URI uri = UriBuilder.fromUri(baseUri).path("issue").build();
+        final JsonGenerator<IssueInput> issueGenerator = input -> {
+            JSONObject property = new JSONObject()
+                    .put("key", IDEMPOTENCY_PROPERTY)
+                    .put("value", new JSONObject().put(IDEMPOTENCY_KEY, idempotencyKey));
+            return issueInputJsonGenerator.generate(input).put("properties", new JSONArray().put(property));
+        };
+        return postAndParse(uri, issueInput, issueGenerator, basicIssueJsonParser);
+    }
+
+    private static class CandidatesPage {
+        private final List<BasicIssue> candidates;
+        private final int nextStartAt;
+        private final boolean last;
+
+        CandidatesPage(List<BasicIssue> candidates, int nextStartAt, boolean last) {
+            this.candidates = candidates;
+            this.nextStartAt = nextStartAt;
+            this.last = last;
+        }
+    }
+
+    /**
+     * Looks among the issues recently created in the project with the same summary for the one holding the
+     * idempotency key, whoever the reporter is since the form may set it. The promise gives null when there is none.
+     */
+    public Promise<BasicIssue> findIssue(final String idempotencyKey, final String projectKey, final String summary, final int createdWithinDays) {
+        final String jql = String.format("project = \"%s\" AND created >= -%dd ORDER BY created DESC", projectKey, createdWithinDays);
+        return findIssue(jql, 0, idempotencyKey, summary);
+    }
+
+    private Promise<BasicIssue> findIssue(final String jql, final int startAt, final String idempotencyKey, final String summary) {
+        final URI uri = UriBuilder.fromUri(baseUri).path("search")
+                .queryParam("jql", jql)
+                .queryParam("fields", "summary")
+                .queryParam("startAt", startAt)
+                .queryParam("maxResults", CANDIDATES_PAGE_SIZE)
+                .build();
+        final JsonObjectParser<CandidatesPage> candidatesParser = json -> {
+            JSONArray issues = json.getJSONArray("issues");
+            List<BasicIssue> candidates = new ArrayList<>();
+            for (int i = 0; i < issues.length(); i++) {
+                JSONObject issue = issues.getJSONObject(i);
+                JSONObject fields = issue.optJSONObject("fields");
+                if (fields != null && summary.equals(fields.optString("summary", null))) {
+                    candidates.add(basicIssueJsonParser.parse(issue));
+                }
+            }
+            int nextStartAt = startAt + issues.length();
+            return new CandidatesPage(candidates, nextStartAt, issues.length() == 0 || nextStartAt >= json.optInt("total", nextStartAt));
+        };
+        return getAndParse(uri, candidatesParser).flatMap(page -> findByProperty(page.candidates, 0, idempotencyKey).flatMap(issue ->
+                issue != null || page.last || page.nextStartAt >= MAX_CANDIDATES
+                        ? Promises.promise(issue)
+                        : findIssue(jql, page.nextStartAt, idempotencyKey, summary)));
+    }
+
+    private Promise<BasicIssue> findByProperty(final List<BasicIssue> candidates, final int index, final String idempotencyKey) {
+        if (index == candidates.size()) {
+            return Promises.promise(null);
+        }
+        final BasicIssue candidate = candidates.get(index);
+        final URI uri = UriBuilder.fromUri(baseUri).path("issue").path(candidate.getKey())
+                .path("properties").path(IDEMPOTENCY_PROPERTY).build();
+        final JsonObjectParser<String> propertyParser = json -> json.getJSONObject("value").optString(IDEMPOTENCY_KEY, null);
+        return getAndParse(uri, propertyParser)
+                .recover(AsynchronousIdempotentIssueRestClient::missingProperty)
+                .flatMap(key -> idempotencyKey.equals(key) ? Promises.promise(candidate) : findByProperty(candidates, index + 1, idempotencyKey));
+    }
+
+    /**
+     * An issue without the property answers 404. Any other error fails the lookup, as the issue may well hold the key.
+     */
+    private static String missingProperty(final Throwable error) {
+        if (error instanceof RestClientException) {
+            for (ErrorCollection errors : ((RestClientException) error).getErrorCollections()) {
+                if (errors.getStatus() != null && errors.getStatus() == NOT_FOUND) {
+                    return null;
+                }
+            }
+        }
+        throw error instanceof RuntimeException ? (RuntimeException) error : new RestClientException(error);
+    }
+}
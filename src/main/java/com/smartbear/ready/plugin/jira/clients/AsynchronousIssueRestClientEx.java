@@ -4,9 +4,15 @@ import com.atlassian.httpclient.api.HttpClient;
 import com.atlassian.jira.rest.client.api.GetCreateIssueMetadataOptions;
 import com.atlassian.jira.rest.client.api.MetadataRestClient;
 import com.atlassian.jira.rest.client.api.SessionRestClient;
+import com.atlassian.jira.rest.client.api.domain.CimFieldInfo;
+import com.atlassian.jira.rest.client.api.domain.CimIssueType;
 import com.atlassian.jira.rest.client.api.domain.CimProject;
 import com.atlassian.jira.rest.client.internal.async.AsynchronousIssueRestClient;
+import com.atlassian.jira.rest.client.internal.json.CimIssueTypeJsonParser;
+import com.smartbear.ready.plugin.jira.parsers.CimFieldInfoJsonTokenParser;
+import com.smartbear.ready.plugin.jira.parsers.CimFieldsInfoJsonParserCloudExt;
 import com.smartbear.ready.plugin.jira.parsers.CreateIssueMetadataJsonParserExt;
+import com.smartbear.ready.plugin.jira.parsers.MetadataPageJsonParser;
 import io.atlassian.util.concurrent.Promise;
 
 import javax.annotation.Nullable;
@@ -15,13 +21,22 @@ import java.net.URI;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
-public class AsynchronousIssueRestClientEx extends AsynchronousIssueRestClient {
+public class AsynchronousIssueRestClientEx extends AsynchronousIssueRestClient implements PagedCreateMetadataRestClient {
+    //the largest page JIRA Cloud accepts for the per-project createmeta endpoints
+    private static final int CREATE_META_PAGE_SIZE = 200;
     URI baseUri;
     private final CreateIssueMetadataJsonParserExt createIssueMetadataJsonParserExt = new CreateIssueMetadataJsonParserExt();
+    private final MetadataPageJsonParser<CimIssueType> issueTypesPageParser = new MetadataPageJsonParser<>("issueTypes", new CimIssueTypeJsonParser());
+    private final CimFieldsInfoJsonParserCloudExt fieldParser = new CimFieldsInfoJsonParserCloudExt();
+    private final MetadataPageJsonParser<CimFieldInfo> fieldsPageParser = new MetadataPageJsonParser<>("fields", fieldParser,
+            MetadataPageJsonParser.ifStreamingAvailable(() -> new CimFieldInfoJsonTokenParser("fieldId", fieldParser)));
+    private final AsynchronousCachedMetadataRestClient cachedMetadataRestClient;
 
-    public AsynchronousIssueRestClientEx(URI baseUri, HttpClient client, SessionRestClient sessionRestClient, MetadataRestClient metadataRestClient) {
+    public AsynchronousIssueRestClientEx(URI baseUri, HttpClient client, SessionRestClient sessionRestClient, MetadataRestClient metadataRestClient,
+                                         AsynchronousCachedMetadataRestClient cachedMetadataRestClient) {
         super(baseUri, client, sessionRestClient, metadataRestClient);
         this.baseUri = baseUri;
+        this.cachedMetadataRestClient = cachedMetadataRestClient;
     }
 
     @Override
@@ -59,6 +74,26 @@ public class AsynchronousIssueRestClientEx extends AsynchronousIssueRestClient {
             }
         }
 
-        return this.getAndParse(uriBuilder.build(), this.createIssueMetadataJsonParserExt);
+        return cachedMetadataRestClient.getAndParseCached(uriBuilder.build(), this.createIssueMetadataJsonParserExt);
+    }
+
+    @Override
+    public Promise<Iterable<CimIssueType>> getCreateMetaIssueTypes(String projectKey) {
+        UriBuilder uriBuilder = UriBuilder.fromUri(this.baseUri).path("issue/createmeta").path(projectKey).path("issuetypes");
+        return cachedMetadataRestClient.getAndParseAllPagesCached(startAt -> pageUri(uriBuilder, startAt), issueTypesPageParser);
+    }
+
+    @Override
+    public Promise<Iterable<CimFieldInfo>> getCreateMetaFields(String projectKey, Long issueTypeId) {
+        UriBuilder uriBuilder = UriBuilder.fromUri(this.baseUri).path("issue/createmeta").path(projectKey)
+                .path("issuetypes").path(String.valueOf(issueTypeId));
+        return cachedMetadataRestClient.getAndParseAllPagesCached(startAt -> pageUri(uriBuilder, startAt), fieldsPageParser);
+    }
+
+    private static URI pageUri(UriBuilder uriBuilder, int startAt) {
+        return uriBuilder.clone()
+                .queryParam("startAt", startAt)
+                .queryParam("maxResults", CREATE_META_PAGE_SIZE)
+                .build();
     }
 }
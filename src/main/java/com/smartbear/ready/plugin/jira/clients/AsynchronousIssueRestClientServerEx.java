@@ -2,9 +2,11 @@ package com.smartbear.ready.plugin.jira.clients;
 
 import com.atlassian.httpclient.api.HttpClient;
 import com.atlassian.jira.rest.client.api.GetCreateIssueMetadataOptions;
+import com.atlassian.jira.rest.client.api.GetCreateIssueMetadataOptionsBuilder;
 import com.atlassian.jira.rest.client.api.MetadataRestClient;
 import com.atlassian.jira.rest.client.api.SessionRestClient;
 import com.atlassian.jira.rest.client.api.domain.CimFieldInfo;
+import com.atlassian.jira.rest.client.api.domain.CimIssueType;
 import com.atlassian.jira.rest.client.api.domain.CimProject;
 import com.atlassian.jira.rest.client.internal.async.AsynchronousIssueRestClient;
 import com.smartbear.ready.plugin.jira.parsers.CimFieldInfoJsonParserServer;
@@ -13,22 +15,38 @@ import io.atlassian.util.concurrent.Promise;
 import javax.annotation.Nullable;
 import javax.ws.rs.core.UriBuilder;
 import java.net.URI;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-public class AsynchronousIssueRestClientServerEx extends AsynchronousIssueRestClient {
+public class AsynchronousIssueRestClientServerEx extends AsynchronousIssueRestClient implements PagedCreateMetadataRestClient {
+    //JIRA caps the page size on its side, the pages actually returned are followed whatever their size is
+    private static final int FIELDS_PAGE_SIZE = 1000;
     URI baseUri;
-    private final CreateIssueMetadataJsonParserServer createIssueMetadataJsonParser = new CreateIssueMetadataJsonParserServer();
     private final CimFieldInfoJsonParserServer issueFieldJsonParser = new CimFieldInfoJsonParserServer();
-    public AsynchronousIssueRestClientServerEx(URI baseUri, HttpClient client, SessionRestClient sessionRestClient, MetadataRestClient metadataRestClient) {
+    private final AsynchronousCachedMetadataRestClient cachedMetadataRestClient;
+    private final boolean pagedCreateMeta;
+    public AsynchronousIssueRestClientServerEx(URI baseUri, HttpClient client, SessionRestClient sessionRestClient, MetadataRestClient metadataRestClient,
+                                               AsynchronousCachedMetadataRestClient cachedMetadataRestClient) {
+        this(baseUri, client, sessionRestClient, metadataRestClient, cachedMetadataRestClient, true);
+    }
+
+    public AsynchronousIssueRestClientServerEx(URI baseUri, HttpClient client, SessionRestClient sessionRestClient, MetadataRestClient metadataRestClient,
+                                               AsynchronousCachedMetadataRestClient cachedMetadataRestClient, boolean pagedCreateMeta) {
         super(baseUri, client, sessionRestClient, metadataRestClient);
         this.baseUri = baseUri;
+        this.cachedMetadataRestClient = cachedMetadataRestClient;
+        this.pagedCreateMeta = pagedCreateMeta;
     }
 
     @Override
     public Promise<Iterable<CimProject>> getCreateIssueMetadata(@Nullable GetCreateIssueMetadataOptions options) {
+        if (!pagedCreateMeta) {
+            //JIRA Server before 8.4 only has the expand based createmeta resource
+            return super.getCreateIssueMetadata(options);
+        }
         Map<String, Object> extraFields = new HashMap<>();
         UriBuilder uriBuilder = UriBuilder.fromUri(this.baseUri).path("issue/createmeta");
         if (options != null && options.projectKeys != null) {
@@ -41,8 +59,10 @@ public class AsynchronousIssueRestClientServerEx extends AsynchronousIssueRestCl
         extraFields.put("self", uriBuilder.build());
 
         uriBuilder.path("/issuetypes");
-        this.createIssueMetadataJsonParser.setExtraFields(extraFields);
-        return this.getAndParse(uriBuilder.build(), this.createIssueMetadataJsonParser);
+        //the parser keeps per-request state, so every request gets its own instance
+        CreateIssueMetadataJsonParserServer createIssueMetadataJsonParser = new CreateIssueMetadataJsonParserServer();
+        createIssueMetadataJsonParser.setExtraFields(extraFields);
+        return cachedMetadataRestClient.getAndParseCached(uriBuilder.build(), createIssueMetadataJsonParser);
     }
     public Promise<Iterable<CimFieldInfo>> getFieldsByIssueId(@Nullable GetCreateIssueMetadataOptions options, Long issueId) {
         UriBuilder uriBuilder = UriBuilder.fromUri(this.baseUri).path("issue/createmeta");
@@ -52,7 +72,27 @@ public class AsynchronousIssueRestClientServerEx extends AsynchronousIssueRestCl
             uriBuilder.path(String.format("/%s", buildPathFromLong(options.projectIds)));
         }
         uriBuilder.path("/issuetypes/"+ issueId);
-        return this.getAndParse(uriBuilder.build(), this.issueFieldJsonParser);
+        return cachedMetadataRestClient.getAndParseAllPagesCached(startAt -> uriBuilder.clone()
+                .queryParam("startAt", startAt)
+                .queryParam("maxResults", FIELDS_PAGE_SIZE)
+                .build(), this.issueFieldJsonParser);
+    }
+
+    @Override
+    public Promise<Iterable<CimIssueType>> getCreateMetaIssueTypes(String projectKey) {
+        GetCreateIssueMetadataOptions options = new GetCreateIssueMetadataOptionsBuilder().withProjectKeys(projectKey).build();
+        return getCreateIssueMetadata(options).map(cimProjects -> {
+            for (CimProject cimProject : cimProjects) {
+                return cimProject.getIssueTypes();
+            }
+            return (Iterable<CimIssueType>) Collections.<CimIssueType>emptyList();
+        });
+    }
+
+    @Override
+    public Promise<Iterable<CimFieldInfo>> getCreateMetaFields(String projectKey, Long issueTypeId) {
+        GetCreateIssueMetadataOptions options = new GetCreateIssueMetadataOptionsBuilder().withProjectKeys(projectKey).build();
+        return getFieldsByIssueId(options, issueTypeId);
     }
 
     private String buildPathFromString(Iterable<String> input) {
@@ -8,16 +8,32 @@ import com.atlassian.jira.rest.client.internal.async.DisposableHttpClient;
 import javax.ws.rs.core.UriBuilder;
 import java.net.URI;
 
-public class AsynchronousJiraRestClientEx extends AsynchronousJiraRestClient {
+public class AsynchronousJiraRestClientEx extends AsynchronousJiraRestClient implements CachingJiraRestClient {
     private final AsynchronousUserSearchRestClient userSearchRestClient;
 
     private final AsynchronousIssueRestClientEx issueRestClientEx;
 
+    private final AsynchronousCachedMetadataRestClient cachedMetadataRestClient;
+
+    private final AsynchronousPermissionsRestClient permissionsRestClient;
+
+    private final AsynchronousIdempotentIssueRestClient idempotentIssueRestClient;
+
+    private final JiraCapabilities capabilities;
+
     public AsynchronousJiraRestClientEx(final URI serverUri, final DisposableHttpClient httpClient) {
+        this(serverUri, httpClient, new JiraCapabilities(JiraCapabilities.CLOUD, null, new int[0], false));
+    }
+
+    public AsynchronousJiraRestClientEx(final URI serverUri, final DisposableHttpClient httpClient, final JiraCapabilities capabilities) {
         super(serverUri, httpClient);
+        this.capabilities = capabilities;
         URI baseUri = UriBuilder.fromUri(serverUri).path("/rest/api/latest").build(new Object[0]);
         userSearchRestClient = new AsynchronousUserSearchRestClient(serverUri, httpClient);
-        issueRestClientEx = new AsynchronousIssueRestClientEx(baseUri, httpClient, this.getSessionClient(), this.getMetadataClient());
+        cachedMetadataRestClient = new AsynchronousCachedMetadataRestClient(baseUri, httpClient);
+        issueRestClientEx = new AsynchronousIssueRestClientEx(baseUri, httpClient, this.getSessionClient(), this.getMetadataClient(), cachedMetadataRestClient);
+        permissionsRestClient = new AsynchronousPermissionsRestClient(baseUri, httpClient, cachedMetadataRestClient);
+        idempotentIssueRestClient = new AsynchronousIdempotentIssueRestClient(baseUri, httpClient);
     }
 
     public AsynchronousUserSearchRestClient getUserSearchRestClient() {
@@ -29,4 +45,24 @@ public class AsynchronousJiraRestClientEx extends AsynchronousJiraRestClient {
         return this.issueRestClientEx;
     }
 
+    @Override
+    public AsynchronousPermissionsRestClient getMyPermissionsRestClient() {
+        return permissionsRestClient;
+    }
+
+    @Override
+    public AsynchronousCachedMetadataRestClient getCachedMetadataClient() {
+        return cachedMetadataRestClient;
+    }
+
+    @Override
+    public JiraCapabilities getCapabilities() {
+        return capabilities;
+    }
+
+    @Override
+    public AsynchronousIdempotentIssueRestClient getIdempotentIssueClient() {
+        return idempotentIssueRestClient;
+    }
+
 }
@@ -7,7 +7,7 @@ import javax.ws.rs.core.UriBuilder;
 import java.io.IOException;
 import java.net.URI;
 
-public class AsynchronousJiraRestClientServer implements JiraRestClient {
+public class AsynchronousJiraRestClientServer implements CachingJiraRestClient {
     private final IssueRestClient issueRestClient;
     private final SessionRestClient sessionRestClient;
     private final UserRestClient userRestClient;
@@ -18,15 +18,27 @@ public class AsynchronousJiraRestClientServer implements JiraRestClient {
     private final SearchRestClient searchRestClient;
     private final VersionRestClient versionRestClient;
     private final ProjectRolesRestClient projectRolesRestClient;
+    private final AsynchronousCachedMetadataRestClient cachedMetadataRestClient;
+    private final AsynchronousPermissionsRestClient permissionsRestClient;
+    private final AsynchronousIdempotentIssueRestClient idempotentIssueRestClient;
     private final DisposableHttpClient httpClient;
+    private final JiraCapabilities capabilities;
 
     public AsynchronousJiraRestClientServer(URI serverUri, DisposableHttpClient httpClient) {
+        this(serverUri, httpClient, new JiraCapabilities(JiraCapabilities.SERVER, null, new int[0], false));
+    }
+
+    public AsynchronousJiraRestClientServer(URI serverUri, DisposableHttpClient httpClient, JiraCapabilities capabilities) {
+        this.capabilities = capabilities;
         URI baseUri = UriBuilder.fromUri(serverUri).path("/rest/api/2").build(new Object[0]);
         this.httpClient = httpClient;
         this.metadataRestClient = new AsynchronousMetadataRestClient(baseUri, httpClient);
         this.sessionRestClient = new AsynchronousSessionRestClient(serverUri, httpClient);
 
-        this.issueRestClient = new AsynchronousIssueRestClientServerEx(baseUri, httpClient, this.sessionRestClient, this.metadataRestClient);
+        this.cachedMetadataRestClient = new AsynchronousCachedMetadataRestClient(baseUri, httpClient);
+
+        this.issueRestClient = new AsynchronousIssueRestClientServerEx(baseUri, httpClient, this.sessionRestClient, this.metadataRestClient, this.cachedMetadataRestClient,
+                capabilities.supportsPagedCreateMeta());
         this.userRestClient = new AsynchronousUserRestClient(baseUri, httpClient);
         this.groupRestClient = new AsynchronousGroupRestClient(baseUri, httpClient);
         this.projectRestClient = new AsynchronousProjectRestClient(baseUri, httpClient);
@@ -34,6 +46,8 @@ public class AsynchronousJiraRestClientServer implements JiraRestClient {
         this.searchRestClient = new AsynchronousSearchRestClient(baseUri, httpClient);
         this.versionRestClient = new AsynchronousVersionRestClient(baseUri, httpClient);
         this.projectRolesRestClient = new AsynchronousProjectRolesRestClient(serverUri, httpClient);
+        this.permissionsRestClient = new AsynchronousPermissionsRestClient(baseUri, httpClient, this.cachedMetadataRestClient);
+        this.idempotentIssueRestClient = new AsynchronousIdempotentIssueRestClient(baseUri, httpClient);
     }
 
     public IssueRestClient getIssueClient() {
@@ -76,14 +90,29 @@ public class AsynchronousJiraRestClientServer implements JiraRestClient {
         return this.projectRolesRestClient;
     }
 
+    @Override
+    public AsynchronousCachedMetadataRestClient getCachedMetadataClient() {
+        return this.cachedMetadataRestClient;
+    }
+
+    @Override
+    public JiraCapabilities getCapabilities() {
+        return this.capabilities;
+    }
+
+    @Override
+    public AsynchronousIdempotentIssueRestClient getIdempotentIssueClient() {
+        return this.idempotentIssueRestClient;
+    }
+
     @Override
     public AuditRestClient getAuditRestClient() {
         return null;
     }
 
     @Override
-    public MyPermissionsRestClient getMyPermissionsRestClient() {
-        return null;
+    public AsynchronousPermissionsRestClient getMyPermissionsRestClient() {
+        return this.permissionsRestClient;
     }
 
     public void close() throws IOException {
@@ -8,7 +8,11 @@ public class AsynchronousJiraRestClientServerEx extends AsynchronousJiraRestClie
     private final AsynchronousUserSearchRestClientExt userSearchRestClientExt;
 
     public AsynchronousJiraRestClientServerEx(final URI serverUri, final DisposableHttpClient httpClient) {
-        super(serverUri, httpClient);
+        this(serverUri, httpClient, new JiraCapabilities(JiraCapabilities.SERVER, null, new int[0], false));
+    }
+
+    public AsynchronousJiraRestClientServerEx(final URI serverUri, final DisposableHttpClient httpClient, final JiraCapabilities capabilities) {
+        super(serverUri, httpClient, capabilities);
         userSearchRestClientExt = new AsynchronousUserSearchRestClientExt(serverUri, httpClient);
     }
 
@@ -0,0 +1,83 @@
+package com.smartbear.ready.plugin.jira.clients;
+
+import com.atlassian.httpclient.api.HttpClient;
+import com.atlassian.jira.rest.client.internal.async.AsynchronousMyPermissionsRestClient;
+import com.atlassian.jira.rest.client.internal.json.JsonObjectParser;
+import com.atlassian.jira.rest.client.internal.json.gen.JsonGenerator;
+import io.atlassian.util.concurrent.Promise;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONObject;
+
+import javax.ws.rs.core.UriBuilder;
+import java.net.URI;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Permission checks of the current user. JIRA Cloud answers for every project in one request. JIRA Server before 9.0
+ * lists the projects where the user can create issues in its unexpanded createmeta; later versions removed that
+ * resource, so their permissions are read project by project from mypermissions.
+ */
+public class AsynchronousPermissionsRestClient extends AsynchronousMyPermissionsRestClient {
+    private final URI baseUri;
+    private final AsynchronousCachedMetadataRestClient cachedMetadataClient;
+
+    public AsynchronousPermissionsRestClient(final URI baseUri, final HttpClient client,
+                                             final AsynchronousCachedMetadataRestClient cachedMetadataClient) {
+        super(baseUri, client);
+        this.baseUri = baseUri;
+        this.cachedMetadataClient = cachedMetadataClient;
+    }
+
+    /**
+     * Returns the keys of all the projects where the user has the permission. JIRA Cloud only.
+     */
+    public Promise<Set<String>> getPermittedProjectKeys(final String permission) {
+        final URI uri = UriBuilder.fromUri(baseUri).path("permissions").path("project").build();
+        final JsonGenerator<List<String>> permissionsGenerator = permissions -> new JSONObject().put("permissions", new JSONArray(permissions));
+        final JsonObjectParser<Set<String>> projectKeysParser = json -> {
+            JSONArray projects = json.getJSONArray("projects");
+            Set<String> keys = new HashSet<>();
+            for (int i = 0; i < projects.length(); i++) {
+                keys.add(projects.getJSONObject(i).getString("key"));
+            }
+            return keys;
+        };
+        return postAndParse(uri, List.of(permission), permissionsGenerator, projectKeysParser);
+    }
+
+    /**
+     * Tells whether the user has the permission in the project, through the metadata store so the answer survives
+     * restarts and gets revalidated. JIRA Server only: mypermissions reads a single project per request.
+     */
+    public Promise<Boolean> hasProjectPermission(final String projectKey, final String permission) {
+        final URI uri = UriBuilder.fromUri(baseUri).path("mypermissions")
+                .queryParam("permissions", permission)
+                .queryParam("projectKey", projectKey)
+                .build();
+        final JsonObjectParser<Boolean> permissionParser = json -> {
+            JSONObject permissions = json.getJSONObject("permissions");
+            return permissions.has(permission) && permissions.getJSONObject(permission).getBoolean("havePermission");
+        };
+        return cachedMetadataClient.getAndParseCached(uri, permissionParser);
+    }
+
+    /**
+     * Returns the keys of the projects where the user can create issues, listed by createmeta without expand in a
+     * single request, through the metadata store so the answer survives restarts and gets revalidated. JIRA Server
+     * before 9.0 only, later versions answer 404.
+     */
+    public Promise<Set<String>> getCreatableProjectKeys() {
+        final URI uri = UriBuilder.fromUri(baseUri).path("issue").path("createmeta").build();
+        final JsonObjectParser<Set<String>> projectKeysParser = json -> {
+            JSONArray projects = json.getJSONArray("projects");
+            Set<String> keys = new HashSet<>();
+            for (int i = 0; i < projects.length(); i++) {
+                keys.add(projects.getJSONObject(i).getString("key"));
+            }
+            return keys;
+        };
+        return cachedMetadataClient.getAndParseCached(uri, projectKeysParser);
+    }
+}
@@ -0,0 +1,11 @@
+package com.smartbear.ready.plugin.jira.clients;
+
+import com.atlassian.jira.rest.client.api.JiraRestClient;
+
+public interface CachingJiraRestClient extends JiraRestClient {
+    AsynchronousCachedMetadataRestClient getCachedMetadataClient();
+
+    JiraCapabilities getCapabilities();
+
+    AsynchronousIdempotentIssueRestClient getIdempotentIssueClient();
+}
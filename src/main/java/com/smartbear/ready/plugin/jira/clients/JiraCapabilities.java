@@ -0,0 +1,110 @@
+package com.smartbear.ready.plugin.jira.clients;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+import java.net.URI;
+
+/**
+ * What the JIRA instance behind a base URL supports, read from its serverInfo resource: the deployment type,
+ * the version and, derived from them, the createmeta style and the paginated resources that can be used.
+ */
+public class JiraCapabilities {
+    public static final String CLOUD = "Cloud";
+    public static final String SERVER = "Server";
+
+    //the paginated createmeta/{project}/issuetypes resources appeared in JIRA Server 8.4
+    private static final int[] PAGED_CREATE_META_VERSION = {8, 4};
+    //the unexpanded createmeta listing every project was removed in JIRA Server 9.0
+    private static final int[] GLOBAL_CREATE_META_REMOVAL_VERSION = {9, 0};
+
+    private final String deploymentType;
+    private final String version;
+    private final int[] versionNumbers;
+    private final boolean probed;
+
+    public JiraCapabilities(String deploymentType, String version, int[] versionNumbers, boolean probed) {
+        this.deploymentType = deploymentType;
+        this.version = version;
+        this.versionNumbers = versionNumbers;
+        this.probed = probed;
+    }
+
+    public static JiraCapabilities parse(String serverInfo) throws JSONException {
+        JSONObject json = new JSONObject(serverInfo);
+        JSONArray numbers = json.optJSONArray("versionNumbers");
+        int[] versionNumbers = new int[numbers == null ? 0 : numbers.length()];
+        for (int i = 0; i < versionNumbers.length; i++) {
+            versionNumbers[i] = numbers.getInt(i);
+        }
+        //Data Center reports its own deployment type and is served by the same client as Server
+        String deploymentType = CLOUD.equalsIgnoreCase(json.optString("deploymentType")) ? CLOUD : SERVER;
+        return new JiraCapabilities(deploymentType, json.optString("version", null), versionNumbers, true);
+    }
+
+    /**
+     * Guess used when serverInfo cannot be read, based on the Atlassian Cloud host names.
+     */
+    public static JiraCapabilities fromHostName(URI serverUri) {
+        boolean isCloud = serverUri.getHost() != null && serverUri.getHost().contains("atlassian.net");
+        return new JiraCapabilities(isCloud ? CLOUD : SERVER, null, new int[0], false);
+    }
+
+    public String getDeploymentType() {
+        return deploymentType;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public boolean isCloud() {
+        return CLOUD.equals(deploymentType);
+    }
+
+    /**
+     * False when the capabilities were guessed because the probe failed.
+     */
+    public boolean isProbed() {
+        return probed;
+    }
+
+    public boolean supportsPagedCreateMeta() {
+        //an unknown Server version is assumed to be recent
+        return isCloud() || versionNumbers.length == 0 || isAtLeast(PAGED_CREATE_META_VERSION);
+    }
+
+    public boolean supportsGlobalCreateMeta() {
+        //an unknown Server version is assumed to be recent
+        return !isCloud() && versionNumbers.length > 0 && !isAtLeast(GLOBAL_CREATE_META_REMOVAL_VERSION);
+    }
+
+    public boolean supportsProjectSearch() {
+        return isCloud();
+    }
+
+    /**
+     * Tells whether a client built for these capabilities uses the same resources as one built for the other ones.
+     */
+    public boolean isServedLike(JiraCapabilities other) {
+        return isCloud() == other.isCloud() &&
+                supportsPagedCreateMeta() == other.supportsPagedCreateMeta() &&
+                supportsProjectSearch() == other.supportsProjectSearch();
+    }
+
+    private boolean isAtLeast(int[] minimumVersion) {
+        for (int i = 0; i < minimumVersion.length; i++) {
+            int number = i < versionNumbers.length ? versionNumbers[i] : 0;
+            if (number != minimumVersion[i]) {
+                return number > minimumVersion[i];
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return deploymentType + (version == null ? "" : " " + version);
+    }
+}
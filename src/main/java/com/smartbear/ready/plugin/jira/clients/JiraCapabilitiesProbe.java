@@ -0,0 +1,128 @@
+package com.smartbear.ready.plugin.jira.clients;
+
+import com.atlassian.httpclient.api.HttpClient;
+import com.atlassian.httpclient.api.Response;
+import com.smartbear.ready.plugin.jira.cache.MetadataStore;
+import org.codehaus.jettison.json.JSONException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.SwingUtilities;
+import javax.ws.rs.core.UriBuilder;
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads serverInfo once per base URL to pick the client and endpoints matching the JIRA instance. The answer is
+ * kept in memory and in the metadata store, so later sessions start without probing again; a stored answer older
+ * than the metadata TTL is revalidated in the background.
+ * <p>
+ * The event dispatch thread never waits for the probe: without a known answer the client is built from a guess,
+ * and {@link #getProbedCapabilities} tells once the probe found something else.
+ */
+public class JiraCapabilitiesProbe {
+    private static final Logger logger = LoggerFactory.getLogger(JiraCapabilitiesProbe.class);
+
+    public static final String SERVER_INFO_PATH = "/rest/api/2/serverInfo";
+    private static final long PROBE_TIMEOUT = 20;
+
+    private static final Map<String, JiraCapabilities> probedCapabilities = new ConcurrentHashMap<>();
+    private static final Set<String> probingUrls = ConcurrentHashMap.newKeySet();
+
+    public static JiraCapabilities getCapabilities(URI serverUri, HttpClient httpClient, MetadataStore metadataStore,
+                                                   long timeToLiveMillis) {
+        String baseUrl = baseUrlOf(serverUri);
+        MetadataStore.Entry entry = metadataStore == null ? null : metadataStore.get(SERVER_INFO_PATH);
+        JiraCapabilities capabilities = probedCapabilities.get(baseUrl);
+        if (capabilities == null && entry != null) {
+            try {
+                capabilities = JiraCapabilities.parse(entry.getPayload());
+                probedCapabilities.put(baseUrl, capabilities);
+            } catch (Exception e) {
+                logger.warn("[JiraCapabilitiesProbe].[getCapabilities] Dropping unreadable serverInfo of {}: {}", baseUrl, e.getMessage());
+            }
+        }
+        if (capabilities != null) {
+            //an upgrade or a move to JIRA Cloud shows up once the stored answer expires
+            if (entry != null && entry.isExpired(timeToLiveMillis)) {
+                probeInBackground(serverUri, httpClient, metadataStore);
+            }
+            return capabilities;
+        }
+
+        if (SwingUtilities.isEventDispatchThread()) {
+            probeInBackground(serverUri, httpClient, metadataStore);
+            capabilities = JiraCapabilities.fromHostName(serverUri);
+        } else {
+            capabilities = probe(serverUri, httpClient, metadataStore);
+        }
+        logger.info("[JiraCapabilitiesProbe].[getCapabilities] {} runs JIRA {}", baseUrl, capabilities);
+        return capabilities;
+    }
+
+    /**
+     * Returns the last capabilities read from serverInfo for the base URL, null when it was never read.
+     */
+    public static JiraCapabilities getProbedCapabilities(URI serverUri) {
+        return probedCapabilities.get(baseUrlOf(serverUri));
+    }
+
+    private static JiraCapabilities probe(URI serverUri, HttpClient httpClient, MetadataStore metadataStore) {
+        URI serverInfoUri = UriBuilder.fromUri(serverUri).path(SERVER_INFO_PATH).build();
+        try {
+            Response response = httpClient.newRequest(serverInfoUri).setAccept("application/json").get()
+                    .get(PROBE_TIMEOUT, TimeUnit.SECONDS);
+            if (response.isSuccessful()) {
+                return probed(serverUri, response.getEntity(), metadataStore);
+            }
+            logger.warn("[JiraCapabilitiesProbe].[probe] Unable to read {}: HTTP {}", serverInfoUri, response.getStatusCode());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.warn("[JiraCapabilitiesProbe].[probe] Unable to read {}: {}", serverInfoUri, e.getMessage());
+        }
+        return JiraCapabilities.fromHostName(serverUri);
+    }
+
+    private static void probeInBackground(URI serverUri, HttpClient httpClient, MetadataStore metadataStore) {
+        String baseUrl = baseUrlOf(serverUri);
+        if (!probingUrls.add(baseUrl)) {
+            return;
+        }
+        URI serverInfoUri = UriBuilder.fromUri(serverUri).path(SERVER_INFO_PATH).build();
+        httpClient.newRequest(serverInfoUri).setAccept("application/json").get()
+                .done(response -> {
+                    probingUrls.remove(baseUrl);
+                    if (!response.isSuccessful()) {
+                        logger.warn("[JiraCapabilitiesProbe].[probeInBackground] Unable to read {}: HTTP {}", serverInfoUri, response.getStatusCode());
+                        return;
+                    }
+                    try {
+                        JiraCapabilities capabilities = probed(serverUri, response.getEntity(), metadataStore);
+                        logger.info("[JiraCapabilitiesProbe].[probeInBackground] {} runs JIRA {}", baseUrl, capabilities);
+                    } catch (JSONException e) {
+                        logger.warn("[JiraCapabilitiesProbe].[probeInBackground] Unable to read {}: {}", serverInfoUri, e.getMessage());
+                    }
+                })
+                .fail(e -> {
+                    probingUrls.remove(baseUrl);
+                    logger.warn("[JiraCapabilitiesProbe].[probeInBackground] Unable to read {}: {}", serverInfoUri, e.getMessage());
+                });
+    }
+
+    private static JiraCapabilities probed(URI serverUri, String payload, MetadataStore metadataStore) throws JSONException {
+        JiraCapabilities capabilities = JiraCapabilities.parse(payload);
+        if (metadataStore != null) {
+            metadataStore.put(SERVER_INFO_PATH, payload);
+        }
+        probedCapabilities.put(baseUrlOf(serverUri), capabilities);
+        return capabilities;
+    }
+
+    private static String baseUrlOf(URI serverUri) {
+        return serverUri.toString().replaceAll("/+$", "");
+    }
+}
@@ -0,0 +1,19 @@
+package com.smartbear.ready.plugin.jira.clients;
+
+import com.atlassian.jira.rest.client.api.domain.CimFieldInfo;
+import com.atlassian.jira.rest.client.api.domain.CimIssueType;
+import io.atlassian.util.concurrent.Promise;
+
+/**
+ * Per-project createmeta endpoints: the issue types of a project, then the fields of one issue type,
+ * both loaded page by page.
+ */
+public interface PagedCreateMetadataRestClient {
+
+    /**
+     * Issue types of the project, without their fields.
+     */
+    Promise<Iterable<CimIssueType>> getCreateMetaIssueTypes(String projectKey);
+
+    Promise<Iterable<CimFieldInfo>> getCreateMetaFields(String projectKey, Long issueTypeId);
+}
@@ -0,0 +1,79 @@
+package com.smartbear.ready.plugin.jira.clients;
+
+import io.atlassian.util.concurrent.Promise;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Starts asynchronous Jira requests with at most {@code maxConcurrentRequests} of them in flight.
+ * Requests over the limit are queued and started as soon as a running one completes.
+ */
+public class RequestLimiter {
+    //queued requests start here instead of on the thread completing the previous one: a JRJC callback thread, or for
+    //promises that are already complete, a stack growing with every queued request
+    private static final ExecutorService starter = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "jira-request-starter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final int maxConcurrentRequests;
+    private final Queue<Runnable> pendingRequests = new ArrayDeque<>();
+    private int runningRequests;
+
+    public RequestLimiter(int maxConcurrentRequests) {
+        this.maxConcurrentRequests = Math.max(1, maxConcurrentRequests);
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<Promise<T>> request) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> {
+            try {
+                request.get()
+                        .done(value -> {
+                            release();
+                            result.complete(value);
+                        })
+                        .fail(error -> {
+                            release();
+                            result.completeExceptionally(error);
+                        });
+            } catch (RuntimeException e) {
+                release();
+                result.completeExceptionally(e);
+            }
+        };
+
+        synchronized (this) {
+            if (runningRequests >= maxConcurrentRequests) {
+                pendingRequests.add(start);
+                return result;
+            }
+            runningRequests++;
+        }
+        start.run();
+        return result;
+    }
+
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            next = pendingRequests.poll();
+            if (next == null) {
+                runningRequests--;
+            }
+        }
+        if (next != null) {
+            starter.execute(next);
+        }
+    }
+}
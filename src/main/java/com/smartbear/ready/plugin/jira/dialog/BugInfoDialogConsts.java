@@ -12,6 +12,8 @@ public interface BugInfoDialogConsts {
 
     public final static String ISSUE_TYPE = "Item type";
 
+    public final static String TARGET_TEST_CASES = "One item per test case";
+
     public final static String ISSUE_PRIORITY = "Priority";
 
     public final static String ISSUE_SUMMARY = "Summary";
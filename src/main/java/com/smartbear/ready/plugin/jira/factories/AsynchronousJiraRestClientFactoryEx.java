@@ -7,21 +7,30 @@ import com.atlassian.jira.rest.client.auth.BasicHttpAuthenticationHandler;
 import com.atlassian.jira.rest.client.internal.async.AsynchronousHttpClientFactory;
 import com.atlassian.jira.rest.client.internal.async.AsynchronousJiraRestClientFactory;
 import com.atlassian.jira.rest.client.internal.async.DisposableHttpClient;
+import com.smartbear.ready.plugin.jira.cache.MetadataStore;
 import com.smartbear.ready.plugin.jira.clients.AsynchronousJiraRestClientEx;
 import com.smartbear.ready.plugin.jira.clients.AsynchronousJiraRestClientServerEx;
+import com.smartbear.ready.plugin.jira.clients.JiraCapabilities;
+import com.smartbear.ready.plugin.jira.clients.JiraCapabilitiesProbe;
 
 import java.net.URI;
 
 public class AsynchronousJiraRestClientFactoryEx extends AsynchronousJiraRestClientFactory {
     @Override
     public JiraRestClient create(final URI serverUri, final AuthenticationHandler authenticationHandler) {
+        return create(serverUri, authenticationHandler, null, 0);
+    }
+
+    /**
+     * Creates the client matching the deployment found by the capability probe, whose answer is kept in the metadata
+     * store and revalidated once older than the metadata TTL.
+     */
+    public JiraRestClient create(final URI serverUri, final AuthenticationHandler authenticationHandler, final MetadataStore metadataStore,
+                                 final long metadataTimeToLiveMillis) {
         final DisposableHttpClient httpClient = new AsynchronousHttpClientFactory()
                 .createClient(serverUri, authenticationHandler);
-        if (serverUri.getHost().contains("atlassian.net")) {
-            return new AsynchronousJiraRestClientEx(serverUri, httpClient);
-        } else {
-            return new AsynchronousJiraRestClientServerEx(serverUri, httpClient);
-        }
+        return create(serverUri, httpClient,
+                JiraCapabilitiesProbe.getCapabilities(serverUri, httpClient, metadataStore, metadataTimeToLiveMillis));
     }
 
     @Override
@@ -29,13 +38,22 @@ public class AsynchronousJiraRestClientFactoryEx extends AsynchronousJiraRestCli
         return create(serverUri, new BasicHttpAuthenticationHandler(username, password));
     }
 
+    public JiraRestClient createWithBasicHttpAuthentication(final URI serverUri, final String username, final String password,
+                                                            final MetadataStore metadataStore, final long metadataTimeToLiveMillis) {
+        return create(serverUri, new BasicHttpAuthenticationHandler(username, password), metadataStore, metadataTimeToLiveMillis);
+    }
+
     @Override
     public JiraRestClient create(final URI serverUri, final HttpClient httpClient) {
         final DisposableHttpClient disposableHttpClient = new AsynchronousHttpClientFactory().createClient(httpClient);
-        if (serverUri.getHost().contains("atlassian.net")) {
-            return new AsynchronousJiraRestClientEx(serverUri, disposableHttpClient);
+        return create(serverUri, disposableHttpClient, JiraCapabilitiesProbe.getCapabilities(serverUri, disposableHttpClient, null, 0));
+    }
+
+    private JiraRestClient create(final URI serverUri, final DisposableHttpClient httpClient, final JiraCapabilities capabilities) {
+        if (capabilities.isCloud()) {
+            return new AsynchronousJiraRestClientEx(serverUri, httpClient, capabilities);
         } else {
-            return new AsynchronousJiraRestClientServerEx(serverUri, disposableHttpClient);
+            return new AsynchronousJiraRestClientServerEx(serverUri, httpClient, capabilities);
         }
     }
 }
@@ -6,7 +6,7 @@ import com.eviware.soapui.plugins.auto.PluginPrefs;
 import com.eviware.soapui.support.components.ListStyleForm;
 import com.eviware.soapui.support.components.SimpleForm;
 import com.eviware.soapui.support.types.StringToStringMap;
-import com.smartbear.ready.plugin.jira.impl.JiraProvider;
+import com.smartbear.ready.plugin.jira.impl.SettingsChangeMonitor;
 import com.smartbear.ready.plugin.jira.settings.BugTrackerPrefs;
 
 import javax.swing.JCheckBox;
@@ -30,6 +30,15 @@ public class JiraPrefsFactory implements Prefs {
     public static final String JIRA_PREFS_TITLE = "JIRA";
     public static final String SKIP_RELEASED_VERSIONS = "Hide released versions:";
     public static final String SKIP_RELEASED_VERSIONS_DESCRIPTION = "Do not show released versions for \"Fixed Version/s\" field";
+    public static final String METADATA_CACHE_TTL = "Metadata cache lifetime (minutes):";
+    public static final String METADATA_CACHE_TTL_DESCRIPTION = "Cached JIRA projects and fields are used immediately and refreshed in the background once they are older than this";
+    public static final long DEFAULT_METADATA_CACHE_TTL = 60;
+    public static final String MAX_PARALLEL_REQUESTS = "Maximum parallel requests:";
+    public static final String MAX_PARALLEL_REQUESTS_DESCRIPTION = "How many metadata requests may be sent to JIRA at the same time";
+    public static final int DEFAULT_MAX_PARALLEL_REQUESTS = 8;
+    public static final String METADATA_MEMORY_BUDGET = "Metadata memory budget (MB):";
+    public static final String METADATA_MEMORY_BUDGET_DESCRIPTION = "Estimated memory the cached project fields may use; the least recently used projects are dropped and reloaded when needed";
+    public static final long DEFAULT_METADATA_MEMORY_BUDGET = 64;
 
     private ListStyleForm form;
 
@@ -37,17 +46,17 @@ public class JiraPrefsFactory implements Prefs {
 
         @Override
         public void insertUpdate(DocumentEvent e) {
-            JiraProvider.freeProvider();
+            SettingsChangeMonitor.settingsChanged();
         }
 
         @Override
         public void removeUpdate(DocumentEvent e) {
-            JiraProvider.freeProvider();
+            SettingsChangeMonitor.settingsChanged();
         }
 
         @Override
         public void changedUpdate(DocumentEvent e) {
-            JiraProvider.freeProvider();
+            SettingsChangeMonitor.settingsChanged();
         }
     }
 
@@ -107,6 +116,9 @@ public class JiraPrefsFactory implements Prefs {
             bugTrackerUrl.getDocument().addDocumentListener(new BugTrackerSettingsChangeListener());
             bugTrackerUrl.addFocusListener(new BugTrackerUrlFieldFocusListener());
             JCheckBox skipReleasedVersions = form.appendCheckBox(SKIP_RELEASED_VERSIONS, SKIP_RELEASED_VERSIONS_DESCRIPTION, false);
+            form.appendTextField(METADATA_CACHE_TTL, METADATA_CACHE_TTL_DESCRIPTION);
+            form.appendTextField(MAX_PARALLEL_REQUESTS, MAX_PARALLEL_REQUESTS_DESCRIPTION);
+            form.appendTextField(METADATA_MEMORY_BUDGET, METADATA_MEMORY_BUDGET_DESCRIPTION);
         }
 
         return form;
@@ -134,6 +146,10 @@ public class JiraPrefsFactory implements Prefs {
             settings.setString(BugTrackerPrefs.DEFAULT_URL, values.get(BUG_TRACKER_URL));
         }
         settings.setBoolean(BugTrackerPrefs.SKIP_VERSIONS, new Boolean(values.get(SKIP_RELEASED_VERSIONS)));
+        settings.setLong(BugTrackerPrefs.METADATA_CACHE_TTL, parseNonNegative(values.get(METADATA_CACHE_TTL), DEFAULT_METADATA_CACHE_TTL));
+        settings.setLong(BugTrackerPrefs.MAX_PARALLEL_REQUESTS, Math.max(1, parseNonNegative(values.get(MAX_PARALLEL_REQUESTS), DEFAULT_MAX_PARALLEL_REQUESTS)));
+        settings.setLong(BugTrackerPrefs.METADATA_MEMORY_BUDGET, Math.max(1, parseNonNegative(values.get(METADATA_MEMORY_BUDGET), DEFAULT_METADATA_MEMORY_BUDGET)));
+        SettingsChangeMonitor.settingsChanged();
     }
 
     @Override
@@ -143,9 +159,21 @@ public class JiraPrefsFactory implements Prefs {
         values.put(BUG_TRACKER_PASSWORD, settings.getString(BugTrackerPrefs.PASSWORD, ""));
         values.put(BUG_TRACKER_URL, settings.getString(BugTrackerPrefs.DEFAULT_URL, BUG_TRACKER_URL_IN_FIELD_DESCRIPTION));
         values.put(SKIP_RELEASED_VERSIONS, settings.getBoolean(BugTrackerPrefs.SKIP_VERSIONS, false));
+        values.put(METADATA_CACHE_TTL, String.valueOf(settings.getLong(BugTrackerPrefs.METADATA_CACHE_TTL, DEFAULT_METADATA_CACHE_TTL)));
+        values.put(MAX_PARALLEL_REQUESTS, String.valueOf(settings.getLong(BugTrackerPrefs.MAX_PARALLEL_REQUESTS, DEFAULT_MAX_PARALLEL_REQUESTS)));
+        values.put(METADATA_MEMORY_BUDGET, String.valueOf(settings.getLong(BugTrackerPrefs.METADATA_MEMORY_BUDGET, DEFAULT_METADATA_MEMORY_BUDGET)));
         return values;
     }
 
+    private static long parseNonNegative(String value, long defaultValue) {
+        try {
+            long number = Long.parseLong(value.trim());
+            return number >= 0 ? number : defaultValue;
+        } catch (NullPointerException | NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
     @Override
     public String getTitle() {
         return JIRA_PREFS_TITLE;
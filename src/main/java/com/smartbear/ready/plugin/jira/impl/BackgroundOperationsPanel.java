@@ -0,0 +1,130 @@
+package com.smartbear.ready.plugin.jira.impl;
+
+import com.eviware.soapui.support.UISupport;
+
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListModel;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
+import javax.swing.WindowConstants;
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+/**
+ * Lists the JIRA operations running in the background, so the user keeps working while JIRA answers. The window
+ * shows up with the first operation and can be closed at any time; finished operations stay listed until cleared.
+ * Double-clicking a finished operation shows its details.
+ */
+public class BackgroundOperationsPanel extends JPanel {
+    private static final String TITLE = "JIRA background operations";
+    private static final String RUNNING = "running...";
+    private static final String CLEAR_FINISHED = "Clear finished";
+
+    //created and used on the event dispatch thread only
+    private static BackgroundOperationsPanel panel;
+    private static JDialog window;
+
+    private final DefaultListModel<Operation> operations = new DefaultListModel<>();
+
+    public static class Operation {
+        private final String description;
+        private String status = RUNNING;
+        private boolean finished;
+        private Runnable details;
+
+        private Operation(String description) {
+            this.description = description;
+        }
+
+        /**
+         * Shows the progress of a running operation; may be called from any thread.
+         */
+        public void update(String status) {
+            SwingUtilities.invokeLater(() -> {
+                this.status = status;
+                panel.update(this);
+            });
+        }
+
+        /**
+         * Marks the operation as finished; may be called from any thread. A finished operation keeps its first outcome.
+         */
+        public void finish(String status, Runnable details) {
+            SwingUtilities.invokeLater(() -> {
+                if (finished) {
+                    return;
+                }
+                this.status = status;
+                this.details = details;
+                this.finished = true;
+                panel.update(this);
+            });
+        }
+
+        @Override
+        public String toString() {
+            return description + " - " + status;
+        }
+    }
+
+    private BackgroundOperationsPanel() {
+        super(new BorderLayout());
+        JList<Operation> list = new JList<>(operations);
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                Operation operation = list.getSelectedValue();
+                if (e.getClickCount() == 2 && operation != null && operation.details != null) {
+                    operation.details.run();
+                }
+            }
+        });
+        add(new JScrollPane(list), BorderLayout.CENTER);
+
+        JButton clearButton = new JButton(CLEAR_FINISHED);
+        clearButton.addActionListener(e -> {
+            for (int i = operations.size() - 1; i >= 0; i--) {
+                if (operations.get(i).finished) {
+                    operations.remove(i);
+                }
+            }
+        });
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttons.add(clearButton);
+        add(buttons, BorderLayout.SOUTH);
+        setBorder(BorderFactory.createEmptyBorder(4, 4, 4, 4));
+        setPreferredSize(new Dimension(480, 200));
+    }
+
+    /**
+     * Lists a new running operation and brings the window up. To be called on the event dispatch thread.
+     */
+    public static Operation startOperation(String description) {
+        if (panel == null) {
+            panel = new BackgroundOperationsPanel();
+            window = new JDialog(UISupport.getMainFrame(), TITLE, false);
+            window.setDefaultCloseOperation(WindowConstants.HIDE_ON_CLOSE);
+            window.getContentPane().add(panel);
+            window.pack();
+            window.setLocationRelativeTo(UISupport.getMainFrame());
+        }
+        Operation operation = new Operation(description);
+        panel.operations.addElement(operation);
+        window.setVisible(true);
+        return operation;
+    }
+
+    private void update(Operation operation) {
+        int index = operations.indexOf(operation);
+        if (index >= 0) {
+            operations.set(index, operation);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.smartbear.ready.plugin.jira.impl;
+
+import java.util.Map;
+
+/**
+ * The values of one issue to file, as given to {@link SimpleBugTrackerProvider#createIssue}.
+ */
+public class IssueCreationRequest {
+    private final String projectKey;
+    private final String issueTypeKey;
+    private final String summary;
+    private final String description;
+    private final Map<String, Object> extraRequiredValues;
+
+    public IssueCreationRequest(String projectKey, String issueTypeKey, String summary, String description,
+                                Map<String, Object> extraRequiredValues) {
+        this.projectKey = projectKey;
+        this.issueTypeKey = issueTypeKey;
+        this.summary = summary;
+        this.description = description;
+        this.extraRequiredValues = extraRequiredValues;
+    }
+
+    public String getProjectKey() {
+        return projectKey;
+    }
+
+    public String getIssueTypeKey() {
+        return issueTypeKey;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Map<String, Object> getExtraRequiredValues() {
+        return extraRequiredValues;
+    }
+}
@@ -0,0 +1,783 @@
+package com.smartbear.ready.plugin.jira.impl;
+
+import com.atlassian.jira.rest.client.api.RestClientException;
+import com.atlassian.jira.rest.client.api.domain.BasicIssue;
+import com.atlassian.jira.rest.client.api.domain.util.ErrorCollection;
+import com.eviware.soapui.SoapUI;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.SwingUtilities;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable queue of the items being filed. A filing is written to an append-only journal, with copies of its
+ * attachments, before anything is sent to JIRA; a background drainer then files it, and retries with an exponential
+ * backoff, across restarts too, while JIRA cannot be reached. Every filing carries an idempotency key, so a retry
+ * after a request whose answer got lost finds the issue instead of filing it twice. That lookup searches the JIRA index,
+ * so an issue created by a request whose answer got lost can still be filed again when the retry runs before JIRA
+ * indexed it; the retry delay, 15 seconds at least, normally exceeds that window.
+ * <p>
+ * Credentials JIRA refuses, or a missing permission to create issues, stop the retries at once: the items wait for
+ * the settings to change.
+ * <p>
+ * The outbox is shared by all the ReadyAPI instances of the user: the journal on disk is the only state, a lock file
+ * guards its replays, appends and compactions, and another one lets a single instance drain at a time.
+ */
+public class IssueOutbox {
+    private static final Logger logger = LoggerFactory.getLogger(IssueOutbox.class);
+
+    private static final String OUTBOX_DIRECTORY = ".soapuios" + File.separator + "jira-plugin" + File.separator + "outbox";
+    private static final String JOURNAL_FILE = "journal.jsonl";
+    private static final String JOURNAL_LOCK_FILE = "journal.lock";
+    private static final String DRAIN_LOCK_FILE = "drain.lock";
+    private static final long READY_API_POLL_INTERVAL = TimeUnit.SECONDS.toMillis(5);
+    private static final long INITIAL_RETRY_DELAY = TimeUnit.SECONDS.toMillis(15);
+    private static final long MAX_RETRY_DELAY = TimeUnit.MINUTES.toMillis(30);
+    private static final long MAX_PENDING_AGE = TimeUnit.DAYS.toMillis(7);
+    private static final int MAX_ATTACHMENT_ATTEMPTS = 5;
+    //another ReadyAPI instance is draining, this one looks again for the outcome of its own items
+    private static final long OTHER_INSTANCE_DELAY = TimeUnit.SECONDS.toMillis(30);
+    //finished items stay journaled that long, so the instance that queued them learns their outcome
+    private static final long FINISHED_RETENTION = TimeUnit.DAYS.toMillis(1);
+    //attachment copies of no journaled item are deleted once that old, another instance may still be writing its item
+    private static final long ORPHAN_AGE = TimeUnit.DAYS.toMillis(1);
+    //the journal is rewritten with the live entries only once it holds that many records
+    private static final int COMPACTION_THRESHOLD = 200;
+    //answers worth another attempt, all other client errors mean JIRA refused the item itself
+    private static final Set<Integer> RETRIED_STATUSES = Set.of(408, 409, 429);
+    //answers refusing the credentials or the permission to create issues, retried once the settings changed
+    private static final Set<Integer> REFUSED_STATUSES = Set.of(401, 403);
+    private static final String PENDING_TOO_LONG = "JIRA could not be reached for %d days";
+    private static final String RESTORED_FILING = "%s in %s: %s (queued in another session)";
+    private static final String RESTORED_FILED = "created %s";
+    private static final String RESTORED_FAILED = "failed: %s";
+    private static final String RESTORED_WAITING = "waiting for new JIRA settings: %s";
+
+    private static final String ID = "id";
+    private static final String TARGET = "target";
+    private static final String QUEUED_AT = "queuedAt";
+    private static final String STATE = "state";
+    private static final String PROJECT = "project";
+    private static final String ISSUE_TYPE = "issueType";
+    private static final String SUMMARY = "summary";
+    private static final String DESCRIPTION = "description";
+    private static final String EXTRA_VALUES = "extraValues";
+    private static final String ATTACHMENTS = "attachments";
+    private static final String NAME = "name";
+    private static final String FILE = "file";
+    private static final String ATTACHED = "attached";
+    private static final String SKIPPED_ATTACHMENTS = "skippedAttachments";
+    private static final String ISSUE_KEY = "issueKey";
+    private static final String ISSUE_SELF = "issueSelf";
+    private static final String ISSUE_ID = "issueId";
+    private static final String ATTEMPTS = "attempts";
+    private static final String ATTACHMENT_ATTEMPTS = "attachmentAttempts";
+    private static final String LAST_ERROR = "lastError";
+    private static final String ATTACHMENT_ERRORS = "attachmentErrors";
+    private static final String FINISHED_AT = "finishedAt";
+
+    enum State {PENDING, CREATED, DONE, FAILED}
+
+    enum Outcome {FINISHED, RETRY, WAIT_FOR_SETTINGS}
+
+    /**
+     * The requests the drainer files an item with, sent by {@link JiraProvider}.
+     */
+    interface Filer {
+        CompletableFuture<BasicIssue> findIssueAsync(IssueCreationRequest request, String idempotencyKey, long filedSince);
+
+        CompletableFuture<BasicIssue> createIssueAsync(IssueCreationRequest request, String idempotencyKey);
+
+        CompletableFuture<AttachmentAddingResult> attachFileAsync(URI attachmentUri, String fileName, InputStream inputStream);
+    }
+
+    /**
+     * Follows one filing; called on the drainer thread.
+     */
+    public interface Listener {
+        /**
+         * JIRA could not be reached, the item is filed again at the given time.
+         */
+        void retryScheduled(String error, long nextAttemptAt);
+
+        /**
+         * The item exists; the attachment errors are empty when all attachments were added.
+         */
+        void filed(BasicIssue issue, String attachmentErrors);
+
+        /**
+         * JIRA refused the credentials or the permission to create issues, the item is filed again once the settings changed.
+         */
+        void waitingForSettings(String error);
+
+        /**
+         * JIRA refused the item, it is not filed again.
+         */
+        void rejected(String error);
+    }
+
+    private static final File directory = new File(System.getProperty("user.home"), OUTBOX_DIRECTORY);
+    private static final File journal = new File(directory, JOURNAL_FILE);
+    private static final File journalLockFile = new File(directory, JOURNAL_LOCK_FILE);
+    private static final File drainLockFile = new File(directory, DRAIN_LOCK_FILE);
+
+    //copies the attachments and journals new filings, so the caller never waits for the disk
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jira-outbox-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ScheduledExecutorService drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jira-outbox-drainer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static ScheduledFuture<?> pendingDrain;
+
+    //listeners of the filings made in this session
+    static final Map<String, Listener> listeners = new ConcurrentHashMap<>();
+    //a JVM cannot lock a file twice, its own threads take turns before locking the journal
+    private static final Object journalLock = new Object();
+    //drainer thread only
+    private static int consecutiveFailures;
+    //items of other sessions the user was told are waiting for new settings, drainer thread only
+    private static final Set<String> reportedWaitingItems = new HashSet<>();
+
+    private static class Attachment {
+        private final String name;
+        private final File file;
+        private boolean attached;
+
+        private Attachment(String name, File file) {
+            this.name = name;
+            this.file = file;
+        }
+    }
+
+    static class Entry {
+        private final String id;
+        private final String target;
+        private final long queuedAt;
+        private final IssueCreationRequest request;
+        private final List<Attachment> attachments = new ArrayList<>();
+        private String skippedAttachments = "";
+        private State state = State.PENDING;
+        private BasicIssue issue;
+        private int attempts;
+        private int attachmentAttempts;
+        private String lastError;
+        private String attachmentErrors = "";
+        private long finishedAt;
+
+        Entry(String id, String target, long queuedAt, IssueCreationRequest request) {
+            this.id = id;
+            this.target = target;
+            this.queuedAt = queuedAt;
+            this.request = request;
+        }
+
+        private JSONObject toJson() throws JSONException {
+            JSONObject extraValues = new JSONObject();
+            for (Map.Entry<String, Object> value : request.getExtraRequiredValues().entrySet()) {
+                extraValues.put(value.getKey(), value.getValue() instanceof String[]
+                        ? new JSONArray(List.of((String[]) value.getValue())) : value.getValue());
+            }
+            JSONArray storedAttachments = new JSONArray();
+            for (Attachment attachment : attachments) {
+                storedAttachments.put(new JSONObject()
+                        .put(NAME, attachment.name)
+                        .put(FILE, attachment.file.getName())
+                        .put(ATTACHED, attachment.attached));
+            }
+            JSONObject json = new JSONObject()
+                    .put(ID, id)
+                    .put(TARGET, target)
+                    .put(QUEUED_AT, queuedAt)
+                    .put(STATE, state.name())
+                    .put(PROJECT, request.getProjectKey())
+                    .put(ISSUE_TYPE, request.getIssueTypeKey())
+                    .put(SUMMARY, request.getSummary())
+                    .putOpt(DESCRIPTION, request.getDescription())
+                    .put(EXTRA_VALUES, extraValues)
+                    .put(ATTACHMENTS, storedAttachments)
+                    .put(SKIPPED_ATTACHMENTS, skippedAttachments)
+                    .put(ATTEMPTS, attempts)
+                    .put(ATTACHMENT_ATTEMPTS, attachmentAttempts)
+                    .putOpt(LAST_ERROR, lastError)
+                    .put(ATTACHMENT_ERRORS, attachmentErrors)
+                    .put(FINISHED_AT, finishedAt);
+            if (issue != null) {
+                json.put(ISSUE_KEY, issue.getKey()).put(ISSUE_SELF, issue.getSelf().toString()).putOpt(ISSUE_ID, issue.getId());
+            }
+            return json;
+        }
+
+        private static Entry fromJson(JSONObject json) throws JSONException {
+            Map<String, Object> extraValues = new HashMap<>();
+            JSONObject storedValues = json.getJSONObject(EXTRA_VALUES);
+            Iterator keys = storedValues.keys();
+            while (keys.hasNext()) {
+                String key = (String) keys.next();
+                JSONArray options = storedValues.optJSONArray(key);
+                if (options == null) {
+                    extraValues.put(key, storedValues.getString(key));
+                    continue;
+                }
+                String[] selectedOptions = new String[options.length()];
+                for (int i = 0; i < options.length(); i++) {
+                    selectedOptions[i] = options.getString(i);
+                }
+                extraValues.put(key, selectedOptions);
+            }
+            IssueCreationRequest request = new IssueCreationRequest(json.getString(PROJECT), json.getString(ISSUE_TYPE),
+                    json.getString(SUMMARY), json.optString(DESCRIPTION, null), extraValues);
+
+            Entry entry = new Entry(json.getString(ID), json.getString(TARGET), json.getLong(QUEUED_AT), request);
+            JSONArray storedAttachments = json.getJSONArray(ATTACHMENTS);
+            for (int i = 0; i < storedAttachments.length(); i++) {
+                JSONObject storedAttachment = storedAttachments.getJSONObject(i);
+                Attachment attachment = new Attachment(storedAttachment.getString(NAME), new File(directory, storedAttachment.getString(FILE)));
+                attachment.attached = storedAttachment.getBoolean(ATTACHED);
+                entry.attachments.add(attachment);
+            }
+            entry.skippedAttachments = json.optString(SKIPPED_ATTACHMENTS, "");
+            entry.state = State.valueOf(json.getString(STATE));
+            if (json.has(ISSUE_KEY)) {
+                entry.issue = new BasicIssue(URI.create(json.getString(ISSUE_SELF)), json.getString(ISSUE_KEY),
+                        json.has(ISSUE_ID) ? json.getLong(ISSUE_ID) : null);
+            }
+            entry.attempts = json.optInt(ATTEMPTS);
+            entry.attachmentAttempts = json.optInt(ATTACHMENT_ATTEMPTS);
+            entry.lastError = json.optString(LAST_ERROR, null);
+            entry.attachmentErrors = json.optString(ATTACHMENT_ERRORS, "");
+            entry.finishedAt = json.optLong(FINISHED_AT);
+            return entry;
+        }
+
+        String getId() {
+            return id;
+        }
+
+        State getState() {
+            return state;
+        }
+
+        BasicIssue getIssue() {
+            return issue;
+        }
+
+        private boolean isLive() {
+            return state == State.PENDING || state == State.CREATED;
+        }
+    }
+
+    public static void scheduleStartupDrain() {
+        drainer.schedule(IssueOutbox::drainWhenReadyApiIsLoaded, READY_API_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Files the pending items right away, after the settings changed or JIRA is expected to be back.
+     */
+    public static void scheduleDrain() {
+        scheduleDrain(0);
+    }
+
+    /**
+     * Queues an item for filing and returns at once; the attachments are copied to the outbox in the background.
+     */
+    public static void submit(JiraProvider provider, IssueCreationRequest request, Map<String, InputStream> attachments,
+                              String attachedFilePath, Listener listener) {
+        Entry entry = new Entry(UUID.randomUUID().toString(), provider.getFilingTarget(), System.currentTimeMillis(), request);
+        listeners.put(entry.id, listener);
+        writer.execute(() -> {
+            enqueue(entry, attachments, attachedFilePath);
+            scheduleDrain(0);
+        });
+    }
+
+    private static void enqueue(Entry entry, Map<String, InputStream> attachments, String attachedFilePath) {
+        StringBuilder skippedAttachments = new StringBuilder();
+        try {
+            Files.createDirectories(directory.toPath());
+            for (Map.Entry<String, InputStream> attachment : attachments.entrySet()) {
+                if (attachment.getValue() == null) {
+                    continue;
+                }
+                File copy = new File(directory, entry.id + "-" + entry.attachments.size());
+                try (InputStream input = attachment.getValue()) {
+                    Files.copy(input, copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                    entry.attachments.add(new Attachment(attachment.getKey(), copy));
+                } catch (IOException e) {
+                    skippedAttachments.append(attachment.getKey()).append(": ").append(e.getMessage()).append("\r\n");
+                }
+            }
+            if (attachedFilePath != null && !attachedFilePath.isEmpty()) {
+                File file = new File(attachedFilePath);
+                File copy = new File(directory, entry.id + "-" + entry.attachments.size());
+                if (!file.isFile()) {
+                    skippedAttachments.append(JiraProvider.BUG_TRACKER_INCORRECT_FILE_PATH).append("\r\n");
+                } else {
+                    try {
+                        Files.copy(file.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                        entry.attachments.add(new Attachment(file.getName(), copy));
+                    } catch (IOException e) {
+                        skippedAttachments.append(file.getName()).append(": ").append(e.getMessage()).append("\r\n");
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("[IssueOutbox].[enqueue] Unable to create the outbox directory {}: {}", directory, e.getMessage());
+        }
+        entry.skippedAttachments = skippedAttachments.toString();
+        record(entry);
+    }
+
+    private static synchronized void scheduleDrain(long delay) {
+        if (pendingDrain != null) {
+            if (pendingDrain.getDelay(TimeUnit.MILLISECONDS) <= delay) {
+                return;
+            }
+            pendingDrain.cancel(false);
+        }
+        pendingDrain = drainer.schedule(IssueOutbox::drain, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static synchronized void drainStarted() {
+        pendingDrain = null;
+    }
+
+    private static void drainWhenReadyApiIsLoaded() {
+        if (SoapUI.getWorkspace() == null) {
+            drainer.schedule(IssueOutbox::drainWhenReadyApiIsLoaded, READY_API_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+            return;
+        }
+        scheduleDrain(0);
+    }
+
+    private static void drain() {
+        drainStarted();
+        try {
+            Files.createDirectories(directory.toPath());
+            try (FileChannel channel = FileChannel.open(drainLockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.tryLock();
+                if (lock == null) {
+                    if (!listeners.isEmpty()) {
+                        scheduleDrain(OTHER_INSTANCE_DELAY);
+                    }
+                    return;
+                }
+                try {
+                    drainLocked();
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException | JSONException e) {
+            logger.warn("[IssueOutbox].[drain] Unable to read the JIRA outbox {}: {}", directory, e.getMessage());
+            retryLater(new ArrayList<>(), null, e.getMessage());
+        }
+    }
+
+    private static void drainLocked() throws IOException, JSONException {
+        List<Entry> queue = new ArrayList<>();
+        for (Entry entry : readJournal()) {
+            if (entry.isLive()) {
+                queue.add(entry);
+            } else {
+                notifyFinished(entry);
+            }
+        }
+        queue.sort(Comparator.comparingLong(entry -> entry.queuedAt));
+        for (Entry entry : queue) {
+            if (System.currentTimeMillis() - entry.queuedAt > MAX_PENDING_AGE) {
+                String error = String.format(PENDING_TOO_LONG, TimeUnit.MILLISECONDS.toDays(MAX_PENDING_AGE));
+                logger.warn("[IssueOutbox].[drain] Gave up filing \"{}\": {}", entry.request.getSummary(), entry.lastError);
+                reject(entry, entry.lastError != null ? error + ": " + entry.lastError : error);
+            }
+        }
+        queue.removeIf(entry -> !entry.isLive());
+        //the provider asks for the settings in a dialog when they are missing, which must never happen in the background
+        if (queue.isEmpty() || !JiraProvider.isConfigured()) {
+            compact();
+            return;
+        }
+
+        try {
+            //a malformed URL is not reported here either, the items wait for the settings to be fixed
+            JiraProvider provider = JiraProvider.getBackgroundProvider();
+            if (provider == null) {
+                compact();
+                return;
+            }
+            String target = provider.getFilingTarget();
+            for (Entry entry : queue) {
+                //items filed with other settings wait until those settings are back
+                if (!entry.target.equals(target)) {
+                    continue;
+                }
+                Outcome outcome = send(provider, entry);
+                if (outcome == Outcome.RETRY) {
+                    retryLater(queue, target, entry.lastError);
+                    return;
+                }
+                if (outcome == Outcome.WAIT_FOR_SETTINGS) {
+                    waitForSettings(queue, target, entry.lastError);
+                    return;
+                }
+            }
+            consecutiveFailures = 0;
+        } catch (RuntimeException e) {
+            logger.warn("[IssueOutbox].[drain] Unable to file the pending JIRA items: {}", e.getMessage());
+            retryLater(queue, null, e.getMessage());
+            return;
+        }
+        compact();
+    }
+
+    /**
+     * Tells the listener of this session about an item another instance finished.
+     */
+    private static void notifyFinished(Entry entry) {
+        Listener listener = listeners.remove(entry.id);
+        if (listener == null) {
+            return;
+        }
+        if (entry.state == State.DONE) {
+            listener.filed(entry.issue, entry.attachmentErrors);
+        } else {
+            listener.rejected(entry.lastError);
+        }
+    }
+
+    /**
+     * Files the entry as far as possible and tells whether it is finished, to be retried, or waiting for new settings.
+     */
+    static Outcome send(Filer provider, Entry entry) {
+        try {
+            if (entry.state == State.PENDING) {
+                BasicIssue issue = null;
+                if (entry.attempts > 0) {
+                    //an earlier attempt may have created the issue without its answer reaching us
+                    issue = provider.findIssueAsync(entry.request, entry.id, entry.queuedAt).get();
+                }
+                if (issue != null) {
+                    created(entry, issue);
+                } else {
+                    //journaled before sending, so that a restart in the middle looks for the issue first
+                    entry.attempts++;
+                    record(entry);
+                    //the key is journaled on the thread the answer arrives on, even if this one stopped waiting for it
+                    provider.createIssueAsync(entry.request, entry.id).thenAccept(created -> created(entry, created)).get();
+                }
+            }
+
+            String attachmentErrors = attach(provider, entry);
+            if (attachmentErrors == null) {
+                return Outcome.RETRY;
+            }
+            entry.attachmentErrors = attachmentErrors;
+            finish(entry, State.DONE);
+            Listener listener = listeners.remove(entry.id);
+            if (listener != null) {
+                listener.filed(entry.issue, attachmentErrors);
+            } else {
+                showRestoredFiling(entry, String.format(RESTORED_FILED, entry.issue.getKey()));
+            }
+            return Outcome.FINISHED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entry.lastError = e.getMessage();
+            return Outcome.RETRY;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (isRejected(cause)) {
+                reject(entry, cause.getMessage());
+                return Outcome.FINISHED;
+            }
+            logger.warn("[IssueOutbox].[send] Unable to file \"{}\": {}", entry.request.getSummary(), cause.getMessage());
+            entry.lastError = cause.getMessage();
+            record(entry);
+            return hasStatus(cause, REFUSED_STATUSES) ? Outcome.WAIT_FOR_SETTINGS : Outcome.RETRY;
+        }
+    }
+
+    private static void created(Entry entry, BasicIssue issue) {
+        entry.issue = issue;
+        entry.state = State.CREATED;
+        record(entry);
+    }
+
+    /**
+     * Adds the attachments not added yet. Returns the errors of the attachments given up on, or null when the failed
+     * ones are to be retried.
+     */
+    private static String attach(Filer provider, Entry entry) throws InterruptedException, ExecutionException {
+        URI attachmentsUri = URI.create(entry.issue.getSelf().toString().concat("/attachments"));
+        StringBuilder errors = new StringBuilder(entry.skippedAttachments);
+        boolean failed = false;
+        for (Attachment attachment : entry.attachments) {
+            if (attachment.attached) {
+                continue;
+            }
+            AttachmentAddingResult result;
+            try (InputStream input = new FileInputStream(attachment.file)) {
+                result = provider.attachFileAsync(attachmentsUri, attachment.name, input).get();
+            } catch (IOException e) {
+                result = new AttachmentAddingResult(e.getMessage());
+            }
+            if (result.getSuccess()) {
+                attachment.attached = true;
+                record(entry);
+            } else {
+                failed = true;
+                errors.append(attachment.name).append(": ").append(result.getError()).append("\r\n");
+            }
+        }
+        if (failed && ++entry.attachmentAttempts < MAX_ATTACHMENT_ATTEMPTS) {
+            entry.lastError = errors.toString();
+            record(entry);
+            return null;
+        }
+        return errors.toString();
+    }
+
+    private static void reject(Entry entry, String error) {
+        entry.lastError = error;
+        finish(entry, State.FAILED);
+        Listener listener = listeners.remove(entry.id);
+        if (listener != null) {
+            listener.rejected(error);
+        } else {
+            showRestoredFiling(entry, String.format(RESTORED_FAILED, error));
+        }
+    }
+
+    private static void finish(Entry entry, State state) {
+        entry.state = state;
+        entry.finishedAt = System.currentTimeMillis();
+        record(entry);
+        for (Attachment attachment : entry.attachments) {
+            if (!attachment.file.delete() && attachment.file.exists()) {
+                logger.warn("[IssueOutbox].[finish] Unable to delete {}", attachment.file);
+            }
+        }
+    }
+
+    private static void retryLater(List<Entry> queue, String target, String error) {
+        consecutiveFailures++;
+        long delay = Math.min(MAX_RETRY_DELAY, INITIAL_RETRY_DELAY << Math.min(consecutiveFailures - 1, 16));
+        //spreads the retries of the users of a JIRA instance that just came back
+        delay += ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+        long nextAttemptAt = System.currentTimeMillis() + delay;
+        for (Entry entry : queue) {
+            Listener listener = listeners.get(entry.id);
+            if (listener != null && entry.isLive() && (target == null || entry.target.equals(target))) {
+                listener.retryScheduled(error, nextAttemptAt);
+            }
+        }
+        scheduleDrain(delay);
+    }
+
+    /**
+     * Stops retrying until the settings change, which schedules a drain, and tells the user right away.
+     */
+    private static void waitForSettings(List<Entry> queue, String target, String error) {
+        consecutiveFailures = 0;
+        logger.warn("[IssueOutbox].[waitForSettings] JIRA refused the filing, waiting for new settings: {}", error);
+        for (Entry entry : queue) {
+            if (!entry.isLive() || !entry.target.equals(target)) {
+                continue;
+            }
+            Listener listener = listeners.get(entry.id);
+            if (listener != null) {
+                listener.waitingForSettings(error);
+            } else if (reportedWaitingItems.add(entry.id)) {
+                showRestoredFiling(entry, String.format(RESTORED_WAITING, error));
+            }
+        }
+    }
+
+    private static boolean isRejected(Throwable error) {
+        if (error instanceof IssueRejectedException) {
+            return true;
+        }
+        if (error instanceof RestClientException) {
+            for (ErrorCollection errors : ((RestClientException) error).getErrorCollections()) {
+                Integer status = errors.getStatus();
+                if (status != null && status >= 400 && status < 500 && !RETRIED_STATUSES.contains(status)
+                        && !REFUSED_STATUSES.contains(status)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasStatus(Throwable error, Set<Integer> statuses) {
+        if (error instanceof RestClientException) {
+            for (ErrorCollection errors : ((RestClientException) error).getErrorCollections()) {
+                if (errors.getStatus() != null && statuses.contains(errors.getStatus())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void showRestoredFiling(Entry entry, String status) {
+        String description = String.format(RESTORED_FILING, entry.request.getIssueTypeKey(), entry.request.getProjectKey(),
+                entry.request.getSummary());
+        SwingUtilities.invokeLater(() -> BackgroundOperationsPanel.startOperation(description).finish(status, null));
+    }
+
+    private interface JournalAction<T> {
+        T run() throws IOException, JSONException;
+    }
+
+    /**
+     * Runs the action holding the journal lock, which the other ReadyAPI instances of the user share.
+     */
+    private static <T> T withJournalLock(JournalAction<T> action) throws IOException, JSONException {
+        synchronized (journalLock) {
+            Files.createDirectories(directory.toPath());
+            try (FileChannel channel = FileChannel.open(journalLockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                return action.run();
+            }
+        }
+    }
+
+    static void record(Entry entry) {
+        try {
+            String line = entry.toJson().toString() + "\n";
+            withJournalLock(() -> Files.write(journal.toPath(), line.getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC));
+        } catch (IOException | JSONException e) {
+            logger.warn("[IssueOutbox].[record] Unable to write the JIRA outbox journal {}: {}", journal, e.getMessage());
+        }
+    }
+
+    static List<Entry> readJournal() throws IOException, JSONException {
+        return withJournalLock(() -> new ArrayList<>(replay(readJournalLines()).values()));
+    }
+
+    private static List<String> readJournalLines() throws IOException {
+        return journal.isFile() ? Files.readAllLines(journal.toPath(), StandardCharsets.UTF_8) : new ArrayList<>();
+    }
+
+    /**
+     * Replays the journal records: the last record of an entry holds its state.
+     */
+    private static Map<String, Entry> replay(List<String> lines) {
+        Map<String, Entry> replayed = new LinkedHashMap<>();
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                Entry entry = Entry.fromJson(new JSONObject(line));
+                replayed.put(entry.id, entry);
+            } catch (JSONException | IllegalArgumentException e) {
+                //the last record may be cut short by a crash
+                logger.warn("[IssueOutbox].[replay] Skipped an unreadable JIRA outbox record: {}", e.getMessage());
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Rewrites the journal with the live entries and the recently finished ones once it grew, or once nothing is live.
+     * The journal is read again under the lock, with the items the other instances queued meanwhile.
+     */
+    static void compact() {
+        try {
+            withJournalLock(() -> {
+                List<String> lines = readJournalLines();
+                Map<String, Entry> replayed = replay(lines);
+                List<Entry> kept = new ArrayList<>();
+                Set<String> attachmentFiles = new HashSet<>();
+                boolean live = false;
+                for (Entry entry : replayed.values()) {
+                    if (entry.isLive() || System.currentTimeMillis() - entry.finishedAt < FINISHED_RETENTION) {
+                        kept.add(entry);
+                        live |= entry.isLive();
+                    }
+                    if (entry.isLive()) {
+                        for (Attachment attachment : entry.attachments) {
+                            attachmentFiles.add(attachment.file.getName());
+                        }
+                    }
+                }
+                deleteOrphans(attachmentFiles);
+                if (live && lines.size() <= COMPACTION_THRESHOLD) {
+                    return null;
+                }
+                if (kept.isEmpty()) {
+                    Files.deleteIfExists(journal.toPath());
+                    return null;
+                }
+                StringBuilder keptLines = new StringBuilder();
+                for (Entry entry : kept) {
+                    keptLines.append(entry.toJson().toString()).append("\n");
+                }
+                File tempFile = new File(directory, JOURNAL_FILE + ".tmp");
+                Files.write(tempFile.toPath(), keptLines.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
+                Files.move(tempFile.toPath(), journal.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return null;
+            });
+        } catch (IOException | JSONException e) {
+            logger.warn("[IssueOutbox].[compact] Unable to compact the JIRA outbox journal {}: {}", journal, e.getMessage());
+        }
+    }
+
+    private static void deleteOrphans(Set<String> attachmentFiles) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (name.equals(JOURNAL_FILE) || name.equals(JOURNAL_LOCK_FILE) || name.equals(DRAIN_LOCK_FILE)
+                    || attachmentFiles.contains(name) || System.currentTimeMillis() - file.lastModified() < ORPHAN_AGE) {
+                continue;
+            }
+            if (!file.delete()) {
+                logger.warn("[IssueOutbox].[deleteOrphans] Unable to delete {}", file);
+            }
+        }
+    }
+}
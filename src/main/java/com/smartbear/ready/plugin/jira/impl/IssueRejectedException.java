@@ -0,0 +1,11 @@
+package com.smartbear.ready.plugin.jira.impl;
+
+/**
+ * An issue that cannot be filed as it is, whatever the number of attempts: a value JIRA does not know, or an
+ * unusable JIRA URL. Filing it again only makes sense once the user changed it.
+ */
+public class IssueRejectedException extends Exception {
+    public IssueRejectedException(String message) {
+        super(message);
+    }
+}
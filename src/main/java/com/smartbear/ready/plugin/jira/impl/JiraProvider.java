@@ -1,8 +1,11 @@
 package com.smartbear.ready.plugin.jira.impl;
 
 import com.atlassian.jira.rest.client.api.*;
+import com.atlassian.jira.rest.client.api.domain.BasicComponent;
 import com.atlassian.jira.rest.client.api.domain.BasicIssue;
 import com.atlassian.jira.rest.client.api.domain.BasicProject;
+import com.atlassian.jira.rest.client.api.domain.BulkOperationErrorResult;
+import com.atlassian.jira.rest.client.api.domain.BulkOperationResult;
 import com.atlassian.jira.rest.client.api.domain.CimFieldInfo;
 import com.atlassian.jira.rest.client.api.domain.CimIssueType;
 import com.atlassian.jira.rest.client.api.domain.CimProject;
@@ -11,12 +14,13 @@ import com.atlassian.jira.rest.client.api.domain.Issue;
 import com.atlassian.jira.rest.client.api.domain.IssueFieldId;
 import com.atlassian.jira.rest.client.api.domain.IssueType;
 import com.atlassian.jira.rest.client.api.domain.Priority;
-import com.atlassian.jira.rest.client.api.domain.Project;
 import com.atlassian.jira.rest.client.api.domain.User;
 import com.atlassian.jira.rest.client.api.domain.Version;
 import com.atlassian.jira.rest.client.api.domain.input.ComplexIssueInputFieldValue;
 import com.atlassian.jira.rest.client.api.domain.input.FieldInput;
+import com.atlassian.jira.rest.client.api.domain.input.IssueInput;
 import com.atlassian.jira.rest.client.api.domain.input.IssueInputBuilder;
+import com.atlassian.jira.rest.client.api.domain.util.ErrorCollection;
 import com.eviware.soapui.SoapUI;
 import com.eviware.soapui.actions.SoapUIPreferencesAction;
 import com.eviware.soapui.impl.wsdl.WsdlProject;
@@ -24,21 +28,47 @@ import com.eviware.soapui.model.ModelItem;
 import com.eviware.soapui.model.settings.Settings;
 import com.eviware.soapui.model.support.ModelSupport;
 import com.eviware.soapui.support.StringUtils;
+import com.atlassian.jira.rest.client.internal.json.BasicComponentJsonParser;
+import com.atlassian.jira.rest.client.internal.json.BasicProjectsJsonParser;
+import com.atlassian.jira.rest.client.internal.json.GenericJsonArrayParser;
+import com.atlassian.jira.rest.client.internal.json.JsonArrayParser;
+import com.atlassian.jira.rest.client.internal.json.JsonObjectParser;
+import com.atlassian.jira.rest.client.internal.json.PriorityJsonParser;
+import com.atlassian.jira.rest.client.internal.json.VersionJsonParser;
 import com.eviware.soapui.support.UISupport;
-import com.smartbear.ready.plugin.jira.clients.AsynchronousIssueRestClientServerEx;
+import com.smartbear.ready.plugin.jira.cache.MetadataInterner;
+import com.smartbear.ready.plugin.jira.cache.MetadataStore;
+import com.smartbear.ready.plugin.jira.cache.MetadataWeigher;
+import com.smartbear.ready.plugin.jira.cache.NameIndex;
+import com.smartbear.ready.plugin.jira.cache.SingleFlightCache;
+import com.smartbear.ready.plugin.jira.clients.AsynchronousCachedMetadataRestClient;
+import com.smartbear.ready.plugin.jira.clients.AsynchronousIdempotentIssueRestClient;
 import com.smartbear.ready.plugin.jira.clients.AsynchronousJiraRestClientEx;
 import com.smartbear.ready.plugin.jira.clients.AsynchronousJiraRestClientServerEx;
+import com.smartbear.ready.plugin.jira.clients.AsynchronousPermissionsRestClient;
 import com.smartbear.ready.plugin.jira.clients.AsynchronousUserSearchRestClient;
 import com.smartbear.ready.plugin.jira.clients.AsynchronousUserSearchRestClientExt;
+import com.smartbear.ready.plugin.jira.clients.CachingJiraRestClient;
+import com.smartbear.ready.plugin.jira.clients.JiraCapabilities;
+import com.smartbear.ready.plugin.jira.clients.JiraCapabilitiesProbe;
+import com.smartbear.ready.plugin.jira.clients.PagedCreateMetadataRestClient;
+import com.smartbear.ready.plugin.jira.clients.RequestLimiter;
 import com.smartbear.ready.plugin.jira.factories.AsynchronousJiraRestClientFactoryEx;
 import com.smartbear.ready.plugin.jira.factories.JiraPrefsFactory;
+import com.smartbear.ready.plugin.jira.parsers.AutoCompleteSuggestionsJsonParser;
+import com.smartbear.ready.plugin.jira.parsers.MetadataPageJsonParser;
+import com.smartbear.ready.plugin.jira.parsers.ProjectPageJsonParser;
 import com.smartbear.ready.plugin.jira.settings.BugTrackerPrefs;
 import com.smartbear.ready.plugin.jira.settings.BugTrackerSettings;
 import io.atlassian.util.concurrent.Promise;
+import io.atlassian.util.concurrent.Promises;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.appender.RollingFileAppender;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,25 +80,39 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
-public class JiraProvider implements SimpleBugTrackerProvider {
+public class JiraProvider implements SimpleBugTrackerProvider, IssueOutbox.Filer {
     private static final Logger logger = LoggerFactory.getLogger(JiraProvider.class);
 
     private static final String BUG_TRACKER_ISSUE_KEY_NOT_SPECIFIED = "No issue key is specified.";
     private static final String BUG_TRACKER_FILE_NAME_NOT_SPECIFIED = "No file name is specified.";
-    private static final String BUG_TRACKER_INCORRECT_FILE_PATH = "Incorrect file path.";
+    public static final String BUG_TRACKER_INCORRECT_FILE_PATH = "Incorrect file path.";
     private static final String BUG_TRACKER_URI_IS_INCORRECT = "The JIRA URL format is incorrect.";
     public static final String BUG_TRACKER_SETTINGS_ARE_NOT_COMPLETELY_SPECIFIED = "Unable to create a JIRA item.\nThe JIRA Integration plugin's settings are not configured or invalid.";
     public static final String INCORRECT_PROTOCOL_IN_THE_JIRA_URL = "\nPerhaps,  you specified the HTTP protocol in the JIRA URL instead of HTTPS.";
     public static final String USER_NAME_NOT_FOUND = "%s user is not found";
+    public static final String ISSUE_TYPE_NOT_FOUND = "%s item type is not found in the %s project";
     public static final String INCORRECT_PROTOCOL_ERROR_CODE = "301";
     public static final String PRIORITY_FIELD_NAME = "priority";
     public static final String FIX_VERSIONS_FIELD_NAME = "fixVersions";
@@ -79,33 +123,212 @@ public class JiraProvider implements SimpleBugTrackerProvider {
     public static final String RESOLUTION_FIELD_NAME = "resolution";
     public static final String NAME_FIELD_NAME = "name";
     public static final String VALUE_FIELD_NAME = "value";
+    public static final int PROJECTS_PAGE_SIZE = 50;
+    //the largest number of issues JIRA accepts in one /issue/bulk request
+    public static final int MAX_BULK_CREATE_SIZE = 50;
+    private static final String BULK_RESULT_MISSING = "JIRA did not report the outcome of this item.";
+    private static final int FILING_THREADS = 4;
+    private static final int CACHED_PROJECT_SEARCHES = 200;
+    private static final int CACHED_USERS = 500;
+    private static final int CACHED_PERMISSIONS = 5000;
+    //a user created after a failed filing is found again after this delay
+    private static final long UNKNOWN_USER_TTL = TimeUnit.MINUTES.toMillis(5);
+    private static final String USER_FIELD_TYPE = "user";
+    private static final int CACHED_SUGGESTIONS = 500;
+    private static final long SUGGESTIONS_TTL = TimeUnit.MINUTES.toMillis(5);
+    private static final String CREATE_ISSUES_PERMISSION = "CREATE_ISSUES";
+    private static final long VERSIONS_REFRESH_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+    private static final int VERSIONS_PAGE_SIZE = 100;
+    private static final List<String> REFRESHED_FIELDS = List.of(VERSIONS_FIELD_NAME, FIX_VERSIONS_FIELD_NAME, COMPONENTS_FIELD_NAME);
 
     private ModelItem activeElement;
     private JiraRestClient restClient = null;
-    private BugTrackerSettings bugTrackerSettings;
-    private static JiraProvider instance = null;
-
-    //Properties below exist for reducing number of Jira API calls since every call is very greedy operation
-    Iterable<BasicProject> allProjects = null;
-    Map<String, Project> requestedProjects = new HashMap<>();
-    Iterable<Priority> priorities = null;
-    Map<String/*project*/, Map<String/*Issue Type*/, Map<String/*FieldName*/, CimFieldInfo>>> projectFields = new HashMap<>();
+    private volatile BugTrackerSettings bugTrackerSettings;
+    private volatile RequestLimiter requestLimiter;
+    private static volatile JiraProvider instance = null;
+    private MetadataStore metadataStore;
+    private final MetadataStore.Listener metadataStoreListener = this::onMetadataChanged;
+
+    private static final String ALL = "*";
+    private static final String CREATE_META_PATH = "/issue/createmeta";
+
+    //builds the issue inputs of the filings in progress, their metadata and user lookups may block
+    private static final ExecutorService filingExecutor = Executors.newFixedThreadPool(FILING_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "jira-issue-filing");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    //Caches below exist for reducing number of Jira API calls since every call is very greedy operation.
+    //Concurrent loads of the same key share one request. The caches are backed by the persistent metadata store
+    //and reset whenever a background revalidation brings new data.
+    //The per-project caches share the configured memory budget and drop their least recently used projects beyond it:
+    //two fifths each for the project and issue type fields, one fifth for the allowed value indexes.
+    final SingleFlightCache<String, Iterable<BasicProject>> allProjects = new SingleFlightCache<>();
+    //keys of the projects where the user can create issues, the other projects are never offered
+    final SingleFlightCache<String, Set<String>> creatableProjectKeys = new SingleFlightCache<>();
+    //the same, project by project, for JIRA Server versions that cannot list them all in one request
+    final SingleFlightCache<String/*project*/, Boolean> createPermissions = new SingleFlightCache<>(CACHED_PERMISSIONS, permitted -> 1);
+    final SingleFlightCache<String, NameIndex<Priority>> priorities = new SingleFlightCache<>();
+    final SingleFlightCache<String/*project*/, NameIndex<IssueType>> projectIssueTypes = new SingleFlightCache<>();
+    //project searches typed in the initial dialog, by lower-cased query; every search counts for one
+    final SingleFlightCache<String, ProjectPage> projectSearches = new SingleFlightCache<>(CACHED_PROJECT_SEARCHES, page -> 1);
+    final SingleFlightCache<String/*project*/, Map<String/*Issue Type*/, Map<String/*FieldName*/, CimFieldInfo>>> projectFields;
+    final SingleFlightCache<List<String>/*project, issue type*/, Map<String/*FieldName*/, CimFieldInfo>> issueTypeFields;
+    //allowed values of the version and component fields by name, built from the cached field metadata
+    final SingleFlightCache<List<String>/*project, issue type, field*/, NameIndex<Object>> allowedValueIndexes;
+    //user names typed in the form, unknown ones included, so repeated filings do not search users again
+    final SingleFlightCache<String, ResolvedUser> resolvedUsers = new SingleFlightCache<>(CACHED_USERS, user -> 1);
+    //autocomplete suggestions by autoCompleteUrl and typed prefix, so erasing and retyping does not query JIRA again
+    final SingleFlightCache<List<String>, CachedSuggestions> autoCompleteSuggestions = new SingleFlightCache<>(CACHED_SUGGESTIONS, suggestions -> 1);
+    //versions and components change far more often than the rest of the schema, they are re-read on their own
+    private final Map<String/*project*/, Long> versionsRefreshTimes = new ConcurrentHashMap<>();
+    //projects sharing schemes get the same field maps, fields and allowed-value lists instead of copies
+    private final MetadataInterner metadataInterner = new MetadataInterner();
 
     public static JiraProvider getProvider() {
-        if (instance == null) {
-            instance = new JiraProvider();
+        JiraProvider provider = instance;
+        if (provider != null && provider.hasOutdatedCapabilities()) {
+            //serverInfo calls for another client than the one built, after an upgrade or instead of the first guess
+            logger.info("[JiraProvider].[getProvider] JIRA capabilities changed, reconnecting");
+            synchronized (JiraProvider.class) {
+                if (instance == provider) {
+                    provider.detachMetadataStore();
+                    instance = null;
+                }
+            }
+            provider = null;
+        }
+        if (provider == null) {
+            synchronized (JiraProvider.class) {
+                if (instance == null) {
+                    instance = new JiraProvider();
+                }
+                provider = instance;
+            }
+        }
+        return provider;
+    }
+
+    /**
+     * Returns the provider for background work, building it without any dialog. Null when the settings are
+     * incomplete or the URL is malformed, which only {@link #getProvider()} reports to the user.
+     */
+    public static JiraProvider getBackgroundProvider() {
+        JiraProvider provider = instance;
+        if (provider != null && !provider.hasOutdatedCapabilities()) {
+            return provider;
+        }
+        JiraProvider replacement = new JiraProvider(false);
+        if (replacement.restClient == null) {
+            replacement.detachMetadataStore();
+            return null;
+        }
+        synchronized (JiraProvider.class) {
+            if (instance != provider && instance != null) {
+                replacement.detachMetadataStore();
+                return instance;
+            }
+            if (provider != null) {
+                provider.detachMetadataStore();
+            }
+            instance = replacement;
+            return replacement;
         }
-        return instance;
     }
 
-    public static void freeProvider() {
+    public static synchronized void freeProvider() {
+        if (instance != null) {
+            instance.detachMetadataStore();
+        }
         instance = null;
     }
 
+    /**
+     * Brings the provider in line with the stored settings. When the URL or the credentials changed, a new provider
+     * is built on the calling thread and swapped in; otherwise the current one, with its warm caches, is kept.
+     */
+    static void applySettings() {
+        JiraProvider current = instance;
+        if (current == null) {
+            return;
+        }
+        BugTrackerSettings settings = readBugTrackerSettings();
+        if (current.connectsWith(settings)) {
+            current.updateSettings(settings);
+            return;
+        }
+
+        logger.info("[JiraProvider].[applySettings] JIRA connection settings changed, reconnecting");
+        JiraProvider replacement = new JiraProvider(false);
+        synchronized (JiraProvider.class) {
+            if (instance != current) {
+                replacement.detachMetadataStore();
+                return;
+            }
+            current.detachMetadataStore();
+            //without a client the next getProvider() has to ask the user for the missing settings
+            if (replacement.restClient != null) {
+                instance = replacement;
+            } else {
+                replacement.detachMetadataStore();
+                instance = null;
+            }
+        }
+    }
+
+    private boolean connectsWith(BugTrackerSettings settings) {
+        BugTrackerSettings current = bugTrackerSettings;
+        return restClient != null && current != null &&
+                current.getUrl().trim().equals(settings.getUrl().trim()) &&
+                current.getLogin().equals(settings.getLogin()) &&
+                current.getPassword().equals(settings.getPassword());
+    }
+
+    private void updateSettings(BugTrackerSettings settings) {
+        if (settings.getMaxParallelRequests() != requestLimiter.getMaxConcurrentRequests()) {
+            requestLimiter = new RequestLimiter(settings.getMaxParallelRequests());
+        }
+        long memoryBudget = settings.getMetadataMemoryBudget() * 1024 * 1024;
+        projectFields.setMaxWeight(memoryBudget * 2 / 5);
+        issueTypeFields.setMaxWeight(memoryBudget * 2 / 5);
+        allowedValueIndexes.setMaxWeight(memoryBudget / 5);
+        if (settings.getSkipReleasedVersions() != bugTrackerSettings.getSkipReleasedVersions()) {
+            //refreshed fix versions may have been filtered by JIRA, the schema is read back from the store
+            projectFields.invalidateAll();
+            issueTypeFields.invalidateAll();
+            allowedValueIndexes.invalidateAll();
+            versionsRefreshTimes.clear();
+        }
+        AsynchronousCachedMetadataRestClient metadataClient = getCachedMetadataClient();
+        if (metadataClient != null && metadataStore != null) {
+            metadataClient.setMetadataStore(metadataStore, TimeUnit.MINUTES.toMillis(settings.getMetadataCacheTtl()), requestLimiter);
+        }
+        bugTrackerSettings = settings;
+    }
+
+    private void detachMetadataStore() {
+        if (metadataStore != null) {
+            metadataStore.removeListener(metadataStoreListener);
+        }
+    }
+
     private JiraProvider() {
+        this(true);
+    }
+
+    private JiraProvider(boolean interactive) {
         bugTrackerSettings = getBugTrackerSettings();
+        requestLimiter = new RequestLimiter(bugTrackerSettings.getMaxParallelRequests());
+        long memoryBudget = bugTrackerSettings.getMetadataMemoryBudget() * 1024 * 1024;
+        projectFields = new SingleFlightCache<>(memoryBudget * 2 / 5, MetadataWeigher::weighProjectFields);
+        issueTypeFields = new SingleFlightCache<>(memoryBudget * 2 / 5, MetadataWeigher::weighFields);
+        allowedValueIndexes = new SingleFlightCache<>(memoryBudget / 5, MetadataWeigher::weighNameIndex);
         if (!settingsComplete(bugTrackerSettings)) {
             logger.error(BUG_TRACKER_URI_IS_INCORRECT);
+            if (!interactive) {
+                return;
+            }
             UISupport.showErrorMessage(BUG_TRACKER_SETTINGS_ARE_NOT_COMPLETELY_SPECIFIED);
             showSettingsDialog();
             if (!settingsComplete(bugTrackerSettings)) {
@@ -117,18 +340,169 @@ public class JiraProvider implements SimpleBugTrackerProvider {
         try {
             String url = bugTrackerSettings.getUrl();
             URI uri = new URI(url);
+            //the store also keeps the deployment capabilities, which decide the client to create
+            metadataStore = MetadataStore.open(url,
+                    MetadataStore.identityOf(bugTrackerSettings.getLogin(), bugTrackerSettings.getPassword()));
+            long metadataTtl = TimeUnit.MINUTES.toMillis(bugTrackerSettings.getMetadataCacheTtl());
             if (bugTrackerSettings.getLogin() != null && ! bugTrackerSettings.getLogin().isEmpty() && ! bugTrackerSettings.getLogin().isBlank() ) {
-                restClient = factory.createWithBasicHttpAuthentication(uri, bugTrackerSettings.getLogin(), bugTrackerSettings.getPassword());
+                restClient = factory.createWithBasicHttpAuthentication(uri, bugTrackerSettings.getLogin(), bugTrackerSettings.getPassword(),
+                        metadataStore, metadataTtl);
             } else {
                 BearerHttpAuthenticationHandler handler = new BearerHttpAuthenticationHandler(bugTrackerSettings.getPassword());
-                restClient = factory.create(uri, handler);
+                restClient = factory.create(uri, handler, metadataStore, metadataTtl);
             }
 
             logger.info("[JiraProvider].[JiraProvider] restClient", restClient.toString());
+            attachMetadataStore();
         } catch (URISyntaxException e) {
             logger.error(BUG_TRACKER_URI_IS_INCORRECT);
-            UISupport.showErrorMessage(BUG_TRACKER_URI_IS_INCORRECT);
+            if (interactive) {
+                UISupport.showErrorMessage(BUG_TRACKER_URI_IS_INCORRECT);
+            }
+        }
+    }
+
+    private void attachMetadataStore() {
+        AsynchronousCachedMetadataRestClient metadataClient = getCachedMetadataClient();
+        if (metadataClient == null) {
+            return;
+        }
+        metadataStore.addListener(metadataStoreListener);
+        metadataClient.setMetadataStore(metadataStore, TimeUnit.MINUTES.toMillis(bugTrackerSettings.getMetadataCacheTtl()), requestLimiter);
+    }
+
+    private AsynchronousCachedMetadataRestClient getCachedMetadataClient() {
+        if (restClient instanceof CachingJiraRestClient) {
+            return ((CachingJiraRestClient) restClient).getCachedMetadataClient();
+        }
+        return null;
+    }
+
+    private AsynchronousIdempotentIssueRestClient getIdempotentIssueClient() {
+        if (restClient instanceof CachingJiraRestClient) {
+            return ((CachingJiraRestClient) restClient).getIdempotentIssueClient();
+        }
+        return null;
+    }
+
+    private boolean hasOutdatedCapabilities() {
+        if (!(restClient instanceof CachingJiraRestClient)) {
+            return false;
+        }
+        JiraCapabilities probed = JiraCapabilitiesProbe.getProbedCapabilities(URI.create(bugTrackerSettings.getUrl()));
+        return probed != null && !probed.isServedLike(((CachingJiraRestClient) restClient).getCapabilities());
+    }
+
+    private boolean isCloud() {
+        return restClient instanceof CachingJiraRestClient && ((CachingJiraRestClient) restClient).getCapabilities().isCloud();
+    }
+
+    private boolean supportsProjectSearch() {
+        return restClient instanceof CachingJiraRestClient && ((CachingJiraRestClient) restClient).getCapabilities().supportsProjectSearch();
+    }
+
+    /**
+     * Returns the client of the paginated createmeta resources, null when the JIRA instance only has the expand based one.
+     */
+    private PagedCreateMetadataRestClient getPagedCreateMetadataClient() {
+        IssueRestClient issueRestClient = restClient.getIssueClient();
+        if (!(issueRestClient instanceof PagedCreateMetadataRestClient)) {
+            return null;
+        }
+        if (restClient instanceof CachingJiraRestClient && !((CachingJiraRestClient) restClient).getCapabilities().supportsPagedCreateMeta()) {
+            return null;
         }
+        return (PagedCreateMetadataRestClient) issueRestClient;
+    }
+
+    private void onMetadataChanged(String key) {
+        if (key.endsWith("/issue/createmeta")) {
+            //the unexpanded createmeta only lists the projects where the user can create issues
+            creatableProjectKeys.invalidateAll();
+        } else if (key.contains(CREATE_META_PATH)) {
+            invalidateCreateMetadata(key);
+        } else if (key.contains("/mypermissions?")) {
+            String projectKey = getQueryParameter(key, "projectKey");
+            if (projectKey != null) {
+                createPermissions.invalidate(projectKey);
+            }
+            projectSearches.invalidateAll();
+        } else if (key.endsWith("/project")) {
+            allProjects.invalidateAll();
+            creatableProjectKeys.invalidateAll();
+            projectSearches.invalidateAll();
+        } else if (key.endsWith("/priority")) {
+            priorities.invalidateAll();
+        }
+    }
+
+    /**
+     * Drops the cached metadata a changed createmeta payload is about, keeping the schemas of the other projects and
+     * issue types warm. The key is either .../createmeta/{project}/issuetypes[/{issue type id}] or the expand based
+     * .../createmeta?projectKeys={projects}.
+     */
+    private void invalidateCreateMetadata(String key) {
+        int queryStart = key.indexOf('?');
+        String path = queryStart < 0 ? key : key.substring(0, queryStart);
+        String[] segments = path.substring(path.indexOf(CREATE_META_PATH) + CREATE_META_PATH.length()).split("/");
+        boolean isPaged = segments.length >= 3 && segments[2].equals("issuetypes");
+        String projects = isPaged ? URLDecoder.decode(segments[1], StandardCharsets.UTF_8) : getQueryParameter(key, "projectKeys");
+        //project keys start with a letter, a payload requested by project ids cannot be matched
+        if (projects == null || projects.isEmpty() || Character.isDigit(projects.charAt(0))) {
+            projectFields.invalidateAll();
+            issueTypeFields.invalidateAll();
+            allowedValueIndexes.invalidateAll();
+            projectIssueTypes.invalidateAll();
+            return;
+        }
+        for (String projectKey : projects.split(",")) {
+            projectFields.invalidate(projectKey);
+            if (isPaged && segments.length == 3) {
+                //the issue type list changed, the fields of each issue type have their own payloads
+                projectIssueTypes.invalidate(projectKey);
+                continue;
+            }
+            String issueType = isPaged ? getCachedIssueTypeName(projectKey, segments[3]) : null;
+            if (issueType != null) {
+                issueTypeFields.invalidate(List.of(projectKey, issueType));
+                allowedValueIndexes.invalidateIf(cached -> cached.get(0).equals(projectKey) && cached.get(1).equals(issueType));
+            } else {
+                //the expand based payload holds the issue types of the project with their fields
+                if (!isPaged) {
+                    projectIssueTypes.invalidate(projectKey);
+                }
+                issueTypeFields.invalidateIf(cached -> cached.get(0).equals(projectKey));
+                allowedValueIndexes.invalidateIf(cached -> cached.get(0).equals(projectKey));
+            }
+        }
+    }
+
+    private String getCachedIssueTypeName(String projectKey, String issueTypeId) {
+        NameIndex<IssueType> issueTypes = projectIssueTypes.getIfPresent(projectKey);
+        if (issueTypes != null) {
+            for (IssueType issueType : issueTypes) {
+                if (issueTypeId.equals(String.valueOf(issueType.getId()))) {
+                    return issueType.getName();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads a parameter from the raw query of a metadata store key, null when it is missing.
+     */
+    private static String getQueryParameter(String key, String name) {
+        int queryStart = key.indexOf('?');
+        if (queryStart < 0) {
+            return null;
+        }
+        for (String parameter : key.substring(queryStart + 1).split("&")) {
+            if (parameter.startsWith(name + "=")) {
+                return URLDecoder.decode(parameter.substring(name.length() + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
     }
 
     private void showSettingsDialog() {
@@ -137,62 +511,280 @@ public class JiraProvider implements SimpleBugTrackerProvider {
     }
 
     private JiraApiCallResult<Iterable<BasicProject>> getAllProjects() {
-        if (allProjects != null) {
-            return new JiraApiCallResult<>(allProjects);
-        }
-
         try {
-            allProjects = restClient.getProjectClient().getAllProjects().get();
-            return new JiraApiCallResult<>(allProjects);
+            return new JiraApiCallResult<>(allProjects.get(ALL, key -> loadAllProjects()));
         } catch (InterruptedException | ExecutionException e) {
             logger.error(e.getMessage());
-            allProjects = null;
             return new JiraApiCallResult<>(e);
         }
     }
 
+    private Iterable<BasicProject> loadAllProjects() throws InterruptedException, ExecutionException {
+        AsynchronousCachedMetadataRestClient metadataClient = getCachedMetadataClient();
+        return metadataClient != null
+                ? metadataClient.getAndParseCached(metadataClient.uriBuilder().path("project").build(), new BasicProjectsJsonParser()).get()
+                : restClient.getProjectClient().getAllProjects().get();
+    }
+
+    private AsynchronousPermissionsRestClient getPermissionsClient() {
+        MyPermissionsRestClient permissionsClient = restClient.getMyPermissionsRestClient();
+        return permissionsClient instanceof AsynchronousPermissionsRestClient ? (AsynchronousPermissionsRestClient) permissionsClient : null;
+    }
+
+    /**
+     * Keeps the projects where the user can create issues, so that no project offered in the form leads to a
+     * createmeta load that yields nothing. JIRA Cloud and JIRA Server before 9.0 answer for all projects in one
+     * request; later JIRA Server versions are asked about the given projects only. When the permissions cannot be
+     * read, the projects are returned unfiltered and a warning is logged.
+     */
+    private List<BasicProject> filterCreatableProjects(List<BasicProject> projects) {
+        AsynchronousPermissionsRestClient permissionsClient = getPermissionsClient();
+        if (permissionsClient == null || projects.isEmpty()) {
+            return projects;
+        }
+        Set<String> permittedKeys;
+        try {
+            permittedKeys = hasGlobalPermissionQuery()
+                    ? creatableProjectKeys.get(ALL, key -> loadAllCreatableProjectKeys(permissionsClient))
+                    : loadCreatableProjectKeys(permissionsClient, projects);
+        } catch (InterruptedException | ExecutionException e) {
+            logger.warn("[JiraProvider].[filterCreatableProjects] Unable to read the project permissions, offering the projects unfiltered: {}",
+                    e.getMessage());
+            return projects;
+        }
+        List<BasicProject> creatableProjects = new ArrayList<>();
+        for (BasicProject project : projects) {
+            if (permittedKeys.contains(project.getKey())) {
+                creatableProjects.add(project);
+            }
+        }
+        return creatableProjects;
+    }
+
+    private boolean hasGlobalPermissionQuery() {
+        return restClient instanceof CachingJiraRestClient &&
+                (isCloud() || ((CachingJiraRestClient) restClient).getCapabilities().supportsGlobalCreateMeta());
+    }
+
+    private Set<String> loadAllCreatableProjectKeys(AsynchronousPermissionsRestClient permissionsClient)
+            throws InterruptedException, ExecutionException {
+        if (isCloud()) {
+            return permissionsClient.getPermittedProjectKeys(CREATE_ISSUES_PERMISSION).get();
+        }
+        return permissionsClient.getCreatableProjectKeys().get();
+    }
+
+    /**
+     * Asks JIRA Server about the projects whose permission is not known yet, in parallel and within the request limit.
+     */
+    private Set<String> loadCreatableProjectKeys(AsynchronousPermissionsRestClient permissionsClient, List<BasicProject> projects)
+            throws InterruptedException, ExecutionException {
+        long generation = createPermissions.getGeneration();
+        Set<String> permittedKeys = new HashSet<>();
+        Map<String, CompletableFuture<Boolean>> checks = new LinkedHashMap<>();
+        for (BasicProject project : projects) {
+            Boolean permitted = createPermissions.getIfPresent(project.getKey());
+            if (permitted == null) {
+                checks.put(project.getKey(), requestLimiter.submit(() ->
+                        permissionsClient.hasProjectPermission(project.getKey(), CREATE_ISSUES_PERMISSION)));
+            } else if (permitted) {
+                permittedKeys.add(project.getKey());
+            }
+        }
+        for (Map.Entry<String, CompletableFuture<Boolean>> check : checks.entrySet()) {
+            boolean permitted = check.getValue().get();
+            createPermissions.put(check.getKey(), permitted, generation);
+            if (permitted) {
+                permittedKeys.add(check.getKey());
+            }
+        }
+        return permittedKeys;
+    }
+
     public List<String> getListOfAllProjects() {
         JiraApiCallResult<Iterable<BasicProject>> projects = getAllProjects();
         if (!projects.isSuccess()) {
             return new ArrayList<>();
         }
 
+        List<BasicProject> allProjectsList = new ArrayList<>();
+        projects.getResult().forEach(allProjectsList::add);
         List<String> projectNames = new ArrayList<>();
-        for (BasicProject project : projects.getResult()) {
+        for (BasicProject project : filterCreatableProjects(allProjectsList)) {
             projectNames.add(project.getKey());
         }
 
         return projectNames;
     }
 
-    private JiraApiCallResult<Project> getProjectByKey(String key) {
-        if (!requestedProjects.containsKey(key)) {
+    /**
+     * Returns one page of the project list. JIRA Cloud pages on the server side. JIRA Server has no paginated
+     * project search: the first page of a cold start reads the whole /project list, which is then kept in the metadata
+     * store and sliced in memory, so only a restart with a stored list gets its first page quickly. The permissions are
+     * checked for the projects of the slice only, and the following slices are checked as well while none is creatable.
+     */
+    public JiraApiCallResult<ProjectPage> getProjectsPage(int startAt, int maxResults) {
+        AsynchronousCachedMetadataRestClient metadataClient = getCachedMetadataClient();
+        if (metadataClient != null && supportsProjectSearch()) {
             try {
-                requestedProjects.put(key, restClient.getProjectClient().getProject(key).get());
+                //JIRA Cloud leaves out the projects where the user cannot create issues itself
+                URI uri = metadataClient.uriBuilder().path("project").path("search")
+                        .queryParam("action", "create")
+                        .queryParam("startAt", startAt)
+                        .queryParam("maxResults", maxResults)
+                        .build();
+                return new JiraApiCallResult<>(metadataClient.getAndParseCached(uri, new ProjectPageJsonParser()).get());
             } catch (InterruptedException | ExecutionException e) {
                 logger.error(e.getMessage());
                 return new JiraApiCallResult<>(e);
             }
         }
-        return new JiraApiCallResult<>(requestedProjects.get(key));
+
+        JiraApiCallResult<Iterable<BasicProject>> projects = getAllProjects();
+        if (!projects.isSuccess()) {
+            return new JiraApiCallResult<>(projects.getError());
+        }
+        Iterator<BasicProject> iterator = projects.getResult().iterator();
+        for (int index = 0; index < startAt && iterator.hasNext(); index++) {
+            iterator.next();
+        }
+        List<BasicProject> page = new ArrayList<>();
+        int nextStartAt = startAt;
+        while (page.isEmpty() && iterator.hasNext()) {
+            List<BasicProject> candidates = new ArrayList<>();
+            while (candidates.size() < maxResults && iterator.hasNext()) {
+                candidates.add(iterator.next());
+            }
+            nextStartAt += candidates.size();
+            page.addAll(filterCreatableProjects(candidates));
+        }
+        return new JiraApiCallResult<>(new ProjectPage(page, startAt, nextStartAt, !iterator.hasNext()));
+    }
+
+    /**
+     * Returns the projects whose key or name contains the query, the first page of all projects for an empty query.
+     */
+    public JiraApiCallResult<ProjectPage> searchProjects(String query, int maxResults) {
+        String normalizedQuery = query == null ? "" : query.trim().toLowerCase();
+        if (normalizedQuery.isEmpty()) {
+            return getProjectsPage(0, maxResults);
+        }
+        try {
+            return new JiraApiCallResult<>(projectSearches.get(normalizedQuery, key -> loadProjectSearch(key, maxResults)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new JiraApiCallResult<>(e);
+        } catch (ExecutionException e) {
+            logger.error(e.getMessage());
+            return new JiraApiCallResult<>(e);
+        }
+    }
+
+    private ProjectPage loadProjectSearch(String query, int maxResults) throws InterruptedException, ExecutionException {
+        AsynchronousCachedMetadataRestClient metadataClient = getCachedMetadataClient();
+        if (metadataClient != null && supportsProjectSearch()) {
+            URI uri = metadataClient.uriBuilder().path("project").path("search")
+                    .queryParam("action", "create")
+                    .queryParam("query", query)
+                    .queryParam("maxResults", maxResults)
+                    .build();
+            return metadataClient.getAndParseUncached(uri, new ProjectPageJsonParser()).get();
+        }
+
+        JiraApiCallResult<Iterable<BasicProject>> projects = getAllProjects();
+        if (!projects.isSuccess()) {
+            throw new ExecutionException(projects.getError());
+        }
+        //the permissions are checked for the matching projects only, a page of them at a time
+        List<BasicProject> matches = new ArrayList<>();
+        List<BasicProject> candidates = new ArrayList<>();
+        for (BasicProject project : projects.getResult()) {
+            if (project.getKey().toLowerCase().contains(query) ||
+                    (project.getName() != null && project.getName().toLowerCase().contains(query))) {
+                candidates.add(project);
+                if (candidates.size() == maxResults) {
+                    matches.addAll(filterCreatableProjects(candidates));
+                    candidates.clear();
+                    if (matches.size() >= maxResults) {
+                        return new ProjectPage(new ArrayList<>(matches.subList(0, maxResults)), 0, false);
+                    }
+                }
+            }
+        }
+        matches.addAll(filterCreatableProjects(candidates));
+        if (matches.size() > maxResults) {
+            return new ProjectPage(new ArrayList<>(matches.subList(0, maxResults)), 0, false);
+        }
+        return new ProjectPage(matches, 0, true);
+    }
+
+    /**
+     * Asks JIRA for the values of a field matching the text typed by the user, using the autoCompleteUrl
+     * the field advertises in its create metadata.
+     */
+    public JiraApiCallResult<List<String>> getAutoCompleteSuggestions(URI autoCompleteUri, String query) {
+        AsynchronousCachedMetadataRestClient metadataClient = getCachedMetadataClient();
+        if (metadataClient == null) {
+            return new JiraApiCallResult<>(new ArrayList<String>());
+        }
+        List<String> key = List.of(autoCompleteUri.toString(), query == null ? "" : query.trim());
+        CachedSuggestions cachedSuggestions = autoCompleteSuggestions.getIfPresent(key);
+        if (cachedSuggestions != null && cachedSuggestions.isExpired()) {
+            autoCompleteSuggestions.discard(key);
+        }
+        try {
+            return new JiraApiCallResult<>(autoCompleteSuggestions.get(key, this::loadAutoCompleteSuggestions).suggestions);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new JiraApiCallResult<>(e);
+        } catch (ExecutionException e) {
+            logger.error("[JiraProvider].[getAutoCompleteSuggestions] " + e.getMessage());
+            return new JiraApiCallResult<>(e);
+        }
+    }
+
+    private CachedSuggestions loadAutoCompleteSuggestions(List<String> key) throws Exception {
+        //the URL ends with the name of the query parameter, e.g. ".../user/search?username="
+        URI uri = new URI(key.get(0) + URLEncoder.encode(key.get(1), StandardCharsets.UTF_8));
+        return new CachedSuggestions(AutoCompleteSuggestionsJsonParser.parse(getCachedMetadataClient().getPayloadUncached(uri).get()));
+    }
+
+    private JiraApiCallResult<NameIndex<IssueType>> getProjectIssueTypes(String projectKey) {
+        try {
+            return new JiraApiCallResult<>(projectIssueTypes.get(projectKey, this::loadProjectIssueTypes));
+        } catch (InterruptedException | ExecutionException e) {
+            logger.error(e.getMessage());
+            return new JiraApiCallResult<>(e);
+        }
     }
 
-    private JiraApiCallResult<OptionalIterable<IssueType>> getProjectIssueTypes(String projectKey) {
-        JiraApiCallResult<Project> project = getProjectByKey(projectKey);
-        if (!project.isSuccess()) {
-            return new JiraApiCallResult<>(project.getError());
+    /**
+     * Lists the issue types a project can create from createmeta, which also gives the ids the field schemas
+     * are requested with, instead of fetching the whole project with its versions, components and roles.
+     */
+    private NameIndex<IssueType> loadProjectIssueTypes(String projectKey) throws InterruptedException, ExecutionException {
+        PagedCreateMetadataRestClient createMetadataClient = getPagedCreateMetadataClient();
+        if (createMetadataClient != null) {
+            return new NameIndex<>(createMetadataClient.getCreateMetaIssueTypes(projectKey).get(), IssueType::getName);
+        }
+        GetCreateIssueMetadataOptions options = new GetCreateIssueMetadataOptionsBuilder()
+                .withProjectKeys(projectKey)
+                .build();
+        List<CimIssueType> issueTypes = new ArrayList<>();
+        for (CimProject cimProject : restClient.getIssueClient().getCreateIssueMetadata(options).get()) {
+            cimProject.getIssueTypes().forEach(issueTypes::add);
         }
-        return new JiraApiCallResult<>(project.getResult().getIssueTypes());
+        return new NameIndex<>(issueTypes, IssueType::getName);
     }
 
     public List<String> getListOfProjectIssueTypes(String projectKey) {
-        JiraApiCallResult<OptionalIterable<IssueType>> result = getProjectIssueTypes(projectKey);
+        JiraApiCallResult<NameIndex<IssueType>> result = getProjectIssueTypes(projectKey);
         if (!result.isSuccess()) {
             return new ArrayList<>();
         }
 
         List<String> issueTypeList = new ArrayList<>();
-        OptionalIterable<IssueType> issueTypes = result.getResult();
+        NameIndex<IssueType> issueTypes = result.getResult();
         for (IssueType issueType : issueTypes) {
             issueTypeList.add(issueType.getName());
         }
@@ -216,42 +808,70 @@ public class JiraProvider implements SimpleBugTrackerProvider {
         return null;
     }
 
-    private JiraApiCallResult<Iterable<Priority>> getAllPriorities() {
-        if (priorities == null) {
-            final MetadataRestClient client = restClient.getMetadataClient();
-            try {
-                priorities = client.getPriorities().get();
-            } catch (InterruptedException | ExecutionException e) {
-                return new JiraApiCallResult<>(e);
-            }
+    private JiraApiCallResult<NameIndex<Priority>> getAllPriorities() {
+        try {
+            return new JiraApiCallResult<>(priorities.get(ALL, key -> loadPriorities()));
+        } catch (InterruptedException | ExecutionException e) {
+            return new JiraApiCallResult<>(e);
         }
-        return new JiraApiCallResult<>(priorities);
+    }
+
+    private NameIndex<Priority> loadPriorities() throws InterruptedException, ExecutionException {
+        final MetadataRestClient client = restClient.getMetadataClient();
+        final AsynchronousCachedMetadataRestClient metadataClient = getCachedMetadataClient();
+        Iterable<Priority> allPriorities = metadataClient != null
+                ? metadataClient.getAndParseCached(metadataClient.uriBuilder().path("priority").build(),
+                        GenericJsonArrayParser.create(new PriorityJsonParser())).get()
+                : client.getPriorities().get();
+        return new NameIndex<>(allPriorities, Priority::getName);
     }
 
     private Priority getPriorityByName(String priorityName) {
-        JiraApiCallResult<Iterable<Priority>> prioritiesResponse = getAllPriorities();
+        JiraApiCallResult<NameIndex<Priority>> prioritiesResponse = getAllPriorities();
         if (!prioritiesResponse.isSuccess()) {
             return null;
         }
-        for (Priority priority : prioritiesResponse.getResult()) {
-            if (priority.getName().equals(priorityName)) {
-                return priority;
-            }
-        }
-        return null;
+        return prioritiesResponse.getResult().get(priorityName);
     }
 
     private JiraApiCallResult<IssueType> getIssueType(String projectKey, String requiredIssueType) {
-        JiraApiCallResult<OptionalIterable<IssueType>> issueTypes = getProjectIssueTypes(projectKey);
+        JiraApiCallResult<NameIndex<IssueType>> issueTypes = getProjectIssueTypes(projectKey);
         if (!issueTypes.isSuccess()) {
             return new JiraApiCallResult<>(issueTypes.getError());
         }
-        for (IssueType issueType : issueTypes.getResult()) {
-            if (issueType.getName().equals(requiredIssueType)) {
-                return new JiraApiCallResult<>(issueType);
-            }
+        IssueType issueType = issueTypes.getResult().get(requiredIssueType);
+        return issueType == null ? null : new JiraApiCallResult<>(issueType);
+    }
+
+    /**
+     * Refers to the version or component chosen in the form by its id when the field metadata knows it, by its name otherwise.
+     */
+    private ComplexIssueInputFieldValue getNamedValueInput(String projectKey, String issueTypeKey, String fieldId, String name) {
+        Object value = getAllowedValueByName(projectKey, issueTypeKey, fieldId, name);
+        Long id = value instanceof Version ? ((Version) value).getId()
+                : value instanceof BasicComponent ? ((BasicComponent) value).getId() : null;
+        return id != null ? ComplexIssueInputFieldValue.with("id", id.toString()) : ComplexIssueInputFieldValue.with(NAME_FIELD_NAME, name);
+    }
+
+    private Object getAllowedValueByName(String projectKey, String issueTypeKey, String fieldId, String name) {
+        CimFieldInfo fieldInfo = getFieldInfo(projectKey, issueTypeKey, fieldId);
+        if (fieldInfo == null || fieldInfo.getAllowedValues() == null) {
+            return null;
+        }
+        try {
+            return allowedValueIndexes.get(List.of(projectKey, issueTypeKey, fieldId),
+                    key -> new NameIndex<>(fieldInfo.getAllowedValues(), JiraProvider::getAllowedValueName)).get(name);
+        } catch (InterruptedException | ExecutionException e) {
+            logger.error(e.getMessage());
+            return null;
         }
-        return null;
+    }
+
+    private static String getAllowedValueName(Object value) {
+        if (value instanceof CustomFieldOption) {
+            return ((CustomFieldOption) value).getValue();
+        }
+        return value instanceof NamedEntity ? ((NamedEntity) value).getName() : null;
     }
 
     public Issue getIssue(String key) {
@@ -274,61 +894,360 @@ public class JiraProvider implements SimpleBugTrackerProvider {
     }
 
     private JiraApiCallResult<Map<String, Map<String, Map<String, CimFieldInfo>>>> getProjectFieldsInternal(String... projects) {
-        List<String> unCachedProjectsList = new ArrayList<>();
-        for (String project : projects) {
-            if (!projectFields.containsKey(project)) {
-                unCachedProjectsList.add(project);
-            }
-        }
-        if (!unCachedProjectsList.isEmpty()) {
-            String[] unCachedProjectsArray = new String[unCachedProjectsList.size()];
-            unCachedProjectsList.toArray(unCachedProjectsArray);
-            GetCreateIssueMetadataOptions options = new GetCreateIssueMetadataOptionsBuilder()
-                    .withExpandedIssueTypesFields()
-                    .withProjectKeys(unCachedProjectsList.toArray(unCachedProjectsArray))
-                    .build();
+        Map<String, Map<String, Map<String, CimFieldInfo>>> requestedProjectFields = new HashMap<>();
+        try {
+            for (String project : projects) {
+                requestedProjectFields.put(project, projectFields.get(project,
+                        key -> metadataInterner.internProjectFields(loadProjectFields(key))));
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            return new JiraApiCallResult<>(e);
+        }
+        return new JiraApiCallResult<>(requestedProjectFields);
+    }
+
+    private Map<String, Map<String, CimFieldInfo>> loadProjectFields(String projectKey) throws InterruptedException, ExecutionException {
+        IssueRestClient issueRestClient = restClient.getIssueClient();
+        PagedCreateMetadataRestClient createMetadataClient = getPagedCreateMetadataClient();
+        if (createMetadataClient != null) {
+            JiraApiCallResult<NameIndex<IssueType>> issueTypes = getProjectIssueTypes(projectKey);
+            if (!issueTypes.isSuccess()) {
+                throw new ExecutionException(issueTypes.getError());
+            }
+            return loadIssueTypesFields(createMetadataClient, projectKey, issueTypes.getResult());
+        }
+
+        GetCreateIssueMetadataOptions options = new GetCreateIssueMetadataOptionsBuilder()
+                .withExpandedIssueTypesFields()
+                .withProjectKeys(projectKey)
+                .build();
+        Map<String, Map<String, CimFieldInfo>> projectIssueTypeFields = new HashMap<>();
+        List<CimIssueType> issueTypes = new ArrayList<>();
+        for (CimProject cimProject : issueRestClient.getCreateIssueMetadata(options).get()) {
+            for (CimIssueType currentIssueType : cimProject.getIssueTypes()) {
+                projectIssueTypeFields.put(currentIssueType.getName(), currentIssueType.getFields());
+                issueTypes.add(currentIssueType);
+            }
+        }
+        //the expanded response lists the issue types too, so the issue type list needs no request of its own
+        projectIssueTypes.put(projectKey, new NameIndex<>(issueTypes, IssueType::getName));
+        return projectIssueTypeFields;
+    }
+
+    /**
+     * Returns the fields of a single issue type, loading only that issue type's metadata when it is not cached yet.
+     */
+    public Map<String, CimFieldInfo> getIssueTypeFields(String projectKey, String issueTypeName) {
+        JiraApiCallResult<Map<String, CimFieldInfo>> issueTypeFieldsResult = getIssueTypeFieldsInternal(projectKey, issueTypeName);
+        if (issueTypeFieldsResult.isSuccess() && issueTypeFieldsResult.getResult() != null) {
+            return issueTypeFieldsResult.getResult();
+        }
+
+        return new HashMap<>();
+    }
+
+    private JiraApiCallResult<Map<String, CimFieldInfo>> getIssueTypeFieldsInternal(String projectKey, String issueTypeName) {
+        Map<String, Map<String, CimFieldInfo>> completeProject = projectFields.getIfPresent(projectKey);
+        if (completeProject != null && completeProject.containsKey(issueTypeName)) {
+            return new JiraApiCallResult<>(completeProject.get(issueTypeName));
+        }
+
+        try {
+            return new JiraApiCallResult<>(issueTypeFields.get(List.of(projectKey, issueTypeName),
+                    key -> metadataInterner.internFields(loadIssueTypeFields(projectKey, issueTypeName))));
+        } catch (InterruptedException | ExecutionException e) {
+            logger.error(e.getMessage());
+            return new JiraApiCallResult<>(e);
+        }
+    }
+
+    private Map<String, CimFieldInfo> loadIssueTypeFields(String projectKey, String issueTypeName) throws InterruptedException, ExecutionException {
+        IssueRestClient issueRestClient = restClient.getIssueClient();
+        PagedCreateMetadataRestClient createMetadataClient = getPagedCreateMetadataClient();
+        if (createMetadataClient == null) {
+            return loadLegacyIssueTypeFields(issueRestClient, projectKey, issueTypeName);
+        }
+        JiraApiCallResult<IssueType> issueType = getIssueType(projectKey, issueTypeName);
+        if (issueType == null) {
+            return null;
+        }
+        if (!issueType.isSuccess()) {
+            throw new ExecutionException(issueType.getError());
+        }
+        return toFieldMap(createMetadataClient.getCreateMetaFields(projectKey, issueType.getResult().getId()).get());
+    }
+
+    private Map<String, CimFieldInfo> loadLegacyIssueTypeFields(IssueRestClient issueRestClient,
+                                                               String projectKey, String issueTypeName)
+            throws InterruptedException, ExecutionException {
+        JiraApiCallResult<IssueType> issueType = getIssueType(projectKey, issueTypeName);
+        if (issueType == null) {
+            return null;
+        }
+        if (!issueType.isSuccess()) {
+            throw new ExecutionException(issueType.getError());
+        }
+        GetCreateIssueMetadataOptions options = new GetCreateIssueMetadataOptionsBuilder()
+                .withExpandedIssueTypesFields()
+                .withProjectKeys(projectKey)
+                .withIssueTypeIds(issueType.getResult().getId())
+                .build();
+        for (CimProject cimProject : issueRestClient.getCreateIssueMetadata(options).get()) {
+            for (CimIssueType cimIssueType : cimProject.getIssueTypes()) {
+                if (cimIssueType.getName().equals(issueTypeName)) {
+                    return cimIssueType.getFields();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, CimFieldInfo> toFieldMap(Iterable<CimFieldInfo> fields) {
+        Map<String, CimFieldInfo> cimFieldInfoMap = new HashMap<>();
+        for (CimFieldInfo cimFieldInfo : fields) {
+            cimFieldInfoMap.put(cimFieldInfo.getId(), cimFieldInfo);
+        }
+        return cimFieldInfoMap;
+    }
+
+    private Map<String, Map<String, CimFieldInfo>> loadIssueTypesFields(PagedCreateMetadataRestClient createMetadataClient,
+                                                                       String projectKey,
+                                                                       Iterable<IssueType> issueTypes) throws InterruptedException {
+        Map<IssueType, CompletableFuture<Map<String, CimFieldInfo>>> requests = new LinkedHashMap<>();
+        for (IssueType issueType : issueTypes) {
+            CompletableFuture<Map<String, CimFieldInfo>> request = requestLimiter
+                    .submit(() -> createMetadataClient.getCreateMetaFields(projectKey, issueType.getId()))
+                    .thenApply(fields -> metadataInterner.internFields(toFieldMap(fields)));
+            //every issue type can be used as soon as its own fields arrive, before the whole project is loaded
+            request.thenAccept(fields -> issueTypeFields.put(List.of(projectKey, issueType.getName()), fields));
+            requests.put(issueType, request);
+        }
+
+        Map<String, Map<String, CimFieldInfo>> projectIssueTypeFields = new HashMap<>();
+        for (Map.Entry<IssueType, CompletableFuture<Map<String, CimFieldInfo>>> request : requests.entrySet()) {
             try {
-                //TODO: just log more information here to make sure changes applied to readyAPI
-                logger.info("[JiraProvider].[getProjectFieldsInternal] we reach here");
-                IssueRestClient issueRestClient = restClient.getIssueClient();
-                Promise<Iterable<CimProject>> cimProjectPromise = issueRestClient.getCreateIssueMetadata(options);
-                Iterable<CimProject> cimProjects = cimProjectPromise.get();
-
-                for (CimProject cimProject : cimProjects) {
-                    Iterable<CimIssueType> issueTypes = cimProject.getIssueTypes();
-                    HashMap<String, Map<String, CimFieldInfo>> issueTypeFields = new HashMap<>();
-                    for (CimIssueType currentIssueType : issueTypes) {
-                        if (issueRestClient instanceof AsynchronousIssueRestClientServerEx) {
-                            try {
-                                Map<String, CimFieldInfo> cimFieldInfoMap = new HashMap<>();
-                                Promise<Iterable<CimFieldInfo>> promiseCimFieldInfo = ((AsynchronousIssueRestClientServerEx) issueRestClient).getFieldsByIssueId(options, currentIssueType.getId());
-                                Iterable<CimFieldInfo> cimFieldInfos = promiseCimFieldInfo.get();
-                                for (CimFieldInfo currentCimFieldInfo : cimFieldInfos) {
-                                    cimFieldInfoMap.put(currentCimFieldInfo.getId(), currentCimFieldInfo);
-                                }
-                                currentIssueType = new CimIssueType(currentIssueType.getSelf(),
-                                        currentIssueType.getId(), currentIssueType.getName(), currentIssueType.isSubtask(),
-                                        currentIssueType.getDescription(), currentIssueType.getIconUri(), cimFieldInfoMap);
-                                issueTypeFields.put(currentIssueType.getName(), currentIssueType.getFields());
-                            } catch (Exception ex) {
-                                logger.error("A error occurred when create issue on Jira server", ex);
-                            }
-                        } else {
-                            issueTypeFields.put(currentIssueType.getName(), currentIssueType.getFields());
-                        }
-                    }
-                    projectFields.put(cimProject.getKey(), issueTypeFields);
+                projectIssueTypeFields.put(request.getKey().getName(), request.getValue().get());
+            } catch (ExecutionException ex) {
+                logger.error("[JiraProvider].[loadIssueTypesFields] Unable to load the fields of " + request.getKey().getName(), ex);
+            }
+        }
+        return projectIssueTypeFields;
+    }
+
+    /**
+     * Re-reads the versions and components of a project in the background and swaps them into its cached field
+     * metadata and its stored schema, so a version created or released since the schema was loaded is offered without
+     * loading the schema again. Projects without cached fields are left alone, their fields are loaded fresh anyway.
+     */
+    public void refreshVersionsAndComponents(String projectKey) {
+        AsynchronousCachedMetadataRestClient metadataClient = getCachedMetadataClient();
+        if (metadataClient == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Long lastRefresh = versionsRefreshTimes.get(projectKey);
+        if (lastRefresh != null && now - lastRefresh < VERSIONS_REFRESH_INTERVAL) {
+            return;
+        }
+
+        //the patched fields are only kept if no invalidation happened while the values were requested
+        long projectFieldsGeneration = projectFields.getGeneration();
+        long issueTypeFieldsGeneration = issueTypeFields.getGeneration();
+        Map<String, Map<String, CimFieldInfo>> cachedProjectFields = projectFields.getIfPresent(projectKey);
+        Map<String, Map<String, CimFieldInfo>> cachedIssueTypeFields = new HashMap<>();
+        NameIndex<IssueType> issueTypes = projectIssueTypes.getIfPresent(projectKey);
+        if (issueTypes != null) {
+            for (IssueType issueType : issueTypes) {
+                Map<String, CimFieldInfo> fields = issueTypeFields.getIfPresent(List.of(projectKey, issueType.getName()));
+                if (fields != null) {
+                    cachedIssueTypeFields.put(issueType.getName(), fields);
+                }
+            }
+        }
+        Set<String> fieldIds = new HashSet<>();
+        collectRefreshedFields(cachedIssueTypeFields, fieldIds);
+        if (cachedProjectFields != null) {
+            collectRefreshedFields(cachedProjectFields, fieldIds);
+        }
+        if (fieldIds.isEmpty()) {
+            return;
+        }
+        versionsRefreshTimes.put(projectKey, now);
+
+        //JIRA Cloud filters the released versions itself, JIRA Server lists them all and the form hides them
+        boolean unreleasedOnly = bugTrackerSettings.getSkipReleasedVersions() && isCloud();
+        boolean allVersionsNeeded = fieldIds.contains(VERSIONS_FIELD_NAME) || (fieldIds.contains(FIX_VERSIONS_FIELD_NAME) && !unreleasedOnly);
+        CompletableFuture<RefreshedValues> versions = allVersionsNeeded
+                ? requestLimiter.submit(() -> metadataClient.getAndParseUncached(
+                        metadataClient.uriBuilder().path("project").path(projectKey).path("versions").build(),
+                        refreshedValuesParser(new VersionJsonParser())))
+                : CompletableFuture.completedFuture(null);
+        CompletableFuture<RefreshedValues> unreleasedVersions = fieldIds.contains(FIX_VERSIONS_FIELD_NAME) && unreleasedOnly
+                ? requestLimiter.submit(() -> loadUnreleasedVersions(metadataClient, projectKey, 0, new ArrayList<>()))
+                : CompletableFuture.completedFuture(null);
+        CompletableFuture<RefreshedValues> components = fieldIds.contains(COMPONENTS_FIELD_NAME)
+                ? requestLimiter.submit(() -> metadataClient.getAndParseUncached(
+                        metadataClient.uriBuilder().path("project").path(projectKey).path("components").build(),
+                        refreshedValuesParser(new BasicComponentJsonParser())))
+                : CompletableFuture.completedFuture(null);
+
+        CompletableFuture.allOf(versions, unreleasedVersions, components).thenRun(() -> {
+            Map<String, RefreshedValues> allowedValues = new HashMap<>();
+            if (versions.join() != null) {
+                if (fieldIds.contains(VERSIONS_FIELD_NAME)) {
+                    allowedValues.put(VERSIONS_FIELD_NAME, versions.join());
+                }
+                if (fieldIds.contains(FIX_VERSIONS_FIELD_NAME) && !unreleasedOnly) {
+                    allowedValues.put(FIX_VERSIONS_FIELD_NAME, versions.join());
+                }
+            }
+            if (unreleasedVersions.join() != null) {
+                allowedValues.put(FIX_VERSIONS_FIELD_NAME, unreleasedVersions.join());
+            }
+            if (components.join() != null) {
+                allowedValues.put(COMPONENTS_FIELD_NAME, components.join());
+            }
+
+            for (Map.Entry<String, Map<String, CimFieldInfo>> fields : cachedIssueTypeFields.entrySet()) {
+                issueTypeFields.put(List.of(projectKey, fields.getKey()), withAllowedValues(fields.getValue(), allowedValues),
+                        issueTypeFieldsGeneration);
+            }
+            if (cachedProjectFields != null) {
+                Map<String, Map<String, CimFieldInfo>> patchedProjectFields = new HashMap<>();
+                for (Map.Entry<String, Map<String, CimFieldInfo>> fields : cachedProjectFields.entrySet()) {
+                    patchedProjectFields.put(fields.getKey(), withAllowedValues(fields.getValue(), allowedValues));
+                }
+                projectFields.put(projectKey, patchedProjectFields, projectFieldsGeneration);
+            }
+            allowedValueIndexes.invalidateIf(key -> key.get(0).equals(projectKey));
+            storeAllowedValues(metadataClient, projectKey, allowedValues);
+        }).exceptionally(e -> {
+            versionsRefreshTimes.remove(projectKey);
+            logger.warn("[JiraProvider].[refreshVersionsAndComponents] Unable to refresh the versions and components of {}: {}",
+                    projectKey, e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Writes the refreshed values into the stored createmeta payloads of the project, so the next session starts with them.
+     */
+    private static void storeAllowedValues(AsynchronousCachedMetadataRestClient metadataClient, String projectKey,
+                                           Map<String, RefreshedValues> allowedValues) {
+        Map<String, JSONArray> storedValues = new HashMap<>();
+        for (Map.Entry<String, RefreshedValues> values : allowedValues.entrySet()) {
+            //values filtered by JIRA have no JSON, the stored schema keeps what createmeta listed
+            if (values.getValue().json != null) {
+                storedValues.put(values.getKey(), values.getValue().json);
+            }
+        }
+        if (!storedValues.isEmpty()) {
+            metadataClient.patchCached(key -> isProjectSchemaKey(key, projectKey), json -> patchAllowedValues(json, storedValues));
+        }
+    }
+
+    private static boolean isProjectSchemaKey(String key, String projectKey) {
+        if (key.contains("/issue/createmeta/" + projectKey + "/issuetypes/")) {
+            return true;
+        }
+        //the expand based createmeta of a single project
+        int index = key.indexOf("projectKeys=" + projectKey);
+        int end = index + "projectKeys=".length() + projectKey.length();
+        return index >= 0 && (end == key.length() || key.charAt(end) == '&');
+    }
+
+    /**
+     * Swaps the allowed values of the refreshed system fields, recognized by their schema in every createmeta shape.
+     */
+    private static boolean patchAllowedValues(Object json, Map<String, JSONArray> allowedValues) throws JSONException {
+        boolean patched = false;
+        if (json instanceof JSONObject) {
+            JSONObject object = (JSONObject) json;
+            JSONObject schema = object.optJSONObject("schema");
+            JSONArray values = schema == null ? null : allowedValues.get(schema.optString("system", null));
+            if (values != null && object.has("allowedValues")) {
+                object.put("allowedValues", values);
+                return true;
+            }
+            Iterator<?> keys = object.keys();
+            while (keys.hasNext()) {
+                patched |= patchAllowedValues(object.opt((String) keys.next()), allowedValues);
+            }
+        } else if (json instanceof JSONArray) {
+            JSONArray array = (JSONArray) json;
+            for (int i = 0; i < array.length(); i++) {
+                patched |= patchAllowedValues(array.opt(i), allowedValues);
+            }
+        }
+        return patched;
+    }
+
+    private static void collectRefreshedFields(Map<String, Map<String, CimFieldInfo>> issueTypes, Set<String> fieldIds) {
+        for (Map<String, CimFieldInfo> fields : issueTypes.values()) {
+            for (String fieldId : REFRESHED_FIELDS) {
+                CimFieldInfo fieldInfo = fields.get(fieldId);
+                if (fieldInfo != null && fieldInfo.getAllowedValues() != null) {
+                    fieldIds.add(fieldId);
                 }
-            } catch (InterruptedException | ExecutionException e) {
-                return new JiraApiCallResult<>(e);
             }
         }
-        return new JiraApiCallResult<>(projectFields);
+    }
+
+    private static JsonArrayParser<RefreshedValues> refreshedValuesParser(JsonObjectParser<?> valueParser) {
+        return array -> {
+            JSONArray json = new JSONArray();
+            List<Object> values = new ArrayList<>();
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject value = array.getJSONObject(i);
+                //createmeta leaves the archived versions out
+                if (!value.optBoolean("archived", false)) {
+                    json.put(value);
+                    values.add(valueParser.parse(value));
+                }
+            }
+            return new RefreshedValues(json, Collections.unmodifiableList(values));
+        };
+    }
+
+    private Promise<RefreshedValues> loadUnreleasedVersions(AsynchronousCachedMetadataRestClient metadataClient, String projectKey,
+                                                            int startAt, List<Object> versions) {
+        URI uri = metadataClient.uriBuilder().path("project").path(projectKey).path("version")
+                .queryParam("status", "unreleased")
+                .queryParam("startAt", startAt)
+                .queryParam("maxResults", VERSIONS_PAGE_SIZE)
+                .build();
+        return metadataClient.getAndParseUncached(uri, new MetadataPageJsonParser<>("values", new VersionJsonParser())).flatMap(page -> {
+            int pageSize = 0;
+            for (Version version : page.getValues()) {
+                if (!version.isArchived()) {
+                    versions.add(version);
+                }
+                pageSize++;
+            }
+            if (page.isLast() || pageSize == 0) {
+                return Promises.promise(new RefreshedValues(null, Collections.unmodifiableList(versions)));
+            }
+            return loadUnreleasedVersions(metadataClient, projectKey, startAt + pageSize, versions);
+        });
+    }
+
+    /**
+     * Copies the field map with new allowed values for the given fields; the cached maps and fields are immutable and shared.
+     */
+    private Map<String, CimFieldInfo> withAllowedValues(Map<String, CimFieldInfo> fields, Map<String, RefreshedValues> allowedValues) {
+        Map<String, CimFieldInfo> patched = new HashMap<>(fields);
+        for (Map.Entry<String, RefreshedValues> values : allowedValues.entrySet()) {
+            CimFieldInfo field = fields.get(values.getKey());
+            if (field != null && field.getAllowedValues() != null) {
+                patched.put(values.getKey(), new CimFieldInfo(field.getId(), field.isRequired(), field.getName(), field.getSchema(),
+                        field.getOperations(), values.getValue().values, field.getAutoCompleteUri()));
+            }
+        }
+        return metadataInterner.internFields(patched);
     }
 
     private CimFieldInfo getFieldInfo(String projectKey, String issueTypeKey, String fieldName) {
-        Map<String, Map<String, Map<String, CimFieldInfo>>> projectFields = getProjectFields(projectKey);
-        return projectFields.get(projectKey).get(issueTypeKey).get(fieldName);
+        return getIssueTypeFields(projectKey, issueTypeKey).get(fieldName);
     }
 
     private boolean isFieldWithPredefinedValues(String projectKey, String issueTypeKey, String fieldName) {
@@ -344,132 +1263,285 @@ public class JiraProvider implements SimpleBugTrackerProvider {
 
     @Override
     public IssueCreationResult createIssue(String projectKey, String issueTypeKey, String summary, String description, Map<String, Object> extraRequiredValues) {
-        //https://bitbucket.org/atlassian/jira-rest-java-client/src/75a64c9d81aad7d8bd9beb11e098148407b13cae/test/src/test/java/samples/Example1.java?at=master
+        return createIssueAsync(projectKey, issueTypeKey, summary, description, extraRequiredValues).join();
+    }
+
+    /**
+     * Files the issue without blocking the caller: the field metadata and users are looked up on a background thread,
+     * then the issue is posted within the request limit. The future never completes exceptionally, failures are
+     * reported by the result.
+     */
+    @Override
+    public CompletableFuture<IssueCreationResult> createIssueAsync(String projectKey, String issueTypeKey, String summary, String description,
+                                                                   Map<String, Object> extraRequiredValues) {
         if (restClient == null) {
-            return new IssueCreationResult(BUG_TRACKER_URI_IS_INCORRECT);
+            return CompletableFuture.completedFuture(new IssueCreationResult(BUG_TRACKER_URI_IS_INCORRECT));
         }
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    try {
+                        return buildIssueInput(projectKey, issueTypeKey, summary, description, extraRequiredValues);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, filingExecutor)
+                .thenCompose(issueInput -> requestLimiter.submit(() -> restClient.getIssueClient().createIssue(issueInput)))
+                .thenApply(basicIssue -> new IssueCreationResult(basicIssue))
+                .exceptionally(e -> new IssueCreationResult(getFilingErrorMessage(e)));
+    }
 
-        BasicIssue basicIssue;
-        try {
-            JiraApiCallResult<IssueType> issueType = getIssueType(projectKey, issueTypeKey);
-            if (issueType != null && !issueType.isSuccess()) {
-                return new IssueCreationResult(issueType.getError().getMessage());
-            }
-
-            IssueInputBuilder issueInputBuilder = new IssueInputBuilder(projectKey, issueType.getResult().getId());
-            issueInputBuilder.setIssueType(issueType.getResult());
-            issueInputBuilder.setProjectKey(projectKey);
-            issueInputBuilder.setSummary(summary);
-            issueInputBuilder.setDescription(description);
-            for (final Map.Entry<String, Object> extraRequiredValue : extraRequiredValues.entrySet()) {
-                if (extraRequiredValue.getKey().equals(PRIORITY_FIELD_NAME)) {
-                    issueInputBuilder.setPriority(getPriorityByName((String) extraRequiredValue.getValue()));
-                } else if (extraRequiredValue.getKey().equals(COMPONENTS_FIELD_NAME)) {
-                    issueInputBuilder.setComponentsNames(() -> new Iterator<>() {
-                        boolean hasValue = true;
-
-                        @Override
-                        public boolean hasNext() {
-                            return hasValue;
-                        }
+    /**
+     * Files the issue under an idempotency key kept in an issue property, for filings that may be retried. Unlike
+     * the other createIssueAsync, the future fails with the error, so the caller can tell rejections from outages.
+     */
+    @Override
+    public CompletableFuture<BasicIssue> createIssueAsync(IssueCreationRequest request, String idempotencyKey) {
+        AsynchronousIdempotentIssueRestClient idempotentClient = getIdempotentIssueClient();
+        if (idempotentClient == null) {
+            return CompletableFuture.failedFuture(new IssueRejectedException(BUG_TRACKER_URI_IS_INCORRECT));
+        }
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    try {
+                        return buildIssueInput(request.getProjectKey(), request.getIssueTypeKey(), request.getSummary(),
+                                request.getDescription(), request.getExtraRequiredValues());
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, filingExecutor)
+                .thenCompose(issueInput -> requestLimiter.submit(() -> idempotentClient.createIssue(issueInput, idempotencyKey)));
+    }
 
-                        @Override
-                        public String next() {
-                            hasValue = false;
-                            return (String) extraRequiredValue.getValue();
-                        }
+    /**
+     * Finds the issue filed under the idempotency key since the given time. The future gives null when there is none.
+     */
+    @Override
+    public CompletableFuture<BasicIssue> findIssueAsync(IssueCreationRequest request, String idempotencyKey, long filedSince) {
+        AsynchronousIdempotentIssueRestClient idempotentClient = getIdempotentIssueClient();
+        if (idempotentClient == null) {
+            return CompletableFuture.failedFuture(new IssueRejectedException(BUG_TRACKER_URI_IS_INCORRECT));
+        }
+        int createdWithinDays = (int) TimeUnit.MILLISECONDS.toDays(System.currentTimeMillis() - filedSince) + 1;
+        return requestLimiter.submit(() -> idempotentClient.findIssue(idempotencyKey, request.getProjectKey(),
+                request.getSummary(), createdWithinDays));
+    }
 
-                        @Override
-                        public void remove() {
+    /**
+     * Returns an opaque key of the JIRA instance and account the provider files to.
+     */
+    public String getFilingTarget() {
+        //items queued before a password change are still filed with the new one
+        return MetadataStore.targetOf(bugTrackerSettings.getUrl(),
+                MetadataStore.accountOf(bugTrackerSettings.getLogin(), bugTrackerSettings.getPassword()));
+    }
 
+    /**
+     * Files several issues with a handful of requests: their inputs are built concurrently, then posted to /issue/bulk
+     * in batches of {@link #MAX_BULK_CREATE_SIZE}. There is one result per request, in the order of the requests; an
+     * item JIRA rejects fails alone, the other items of its batch are created.
+     */
+    public CompletableFuture<List<IssueCreationResult>> createIssuesAsync(List<IssueCreationRequest> requests) {
+        IssueCreationResult[] results = new IssueCreationResult[requests.size()];
+        if (restClient == null) {
+            Arrays.fill(results, new IssueCreationResult(BUG_TRACKER_URI_IS_INCORRECT));
+            return CompletableFuture.completedFuture(Arrays.asList(results));
+        }
+
+        //the items of one project and issue type share a single schema load and user lookup
+        Map<List<String>, CompletableFuture<Void>> preparations = new HashMap<>();
+        for (IssueCreationRequest request : requests) {
+            preparations.computeIfAbsent(List.of(request.getProjectKey(), request.getIssueTypeKey()),
+                    key -> CompletableFuture.runAsync(() -> prepareFiling(key.get(0), key.get(1), requests), filingExecutor));
+        }
+        List<CompletableFuture<IssueInput>> inputs = new ArrayList<>();
+        for (IssueCreationRequest request : requests) {
+            inputs.add(preparations.get(List.of(request.getProjectKey(), request.getIssueTypeKey())).thenApplyAsync(ignored -> {
+                try {
+                    return buildIssueInput(request.getProjectKey(), request.getIssueTypeKey(), request.getSummary(),
+                            request.getDescription(), request.getExtraRequiredValues());
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, filingExecutor));
+        }
+
+        return CompletableFuture.allOf(inputs.toArray(new CompletableFuture[0]))
+                .handle((ignored, error) -> null)
+                .thenCompose(ignored -> {
+                    //an item whose input cannot be built is reported without being sent
+                    List<Integer> builtItems = new ArrayList<>();
+                    for (int i = 0; i < inputs.size(); i++) {
+                        try {
+                            inputs.get(i).join();
+                            builtItems.add(i);
+                        } catch (CompletionException e) {
+                            results[i] = new IssueCreationResult(getFilingErrorMessage(e));
                         }
-                    });
-                } else if (extraRequiredValue.getKey().equals(VERSIONS_FIELD_NAME)) {
-                    issueInputBuilder.setAffectedVersionsNames(() -> new Iterator<>() {
-                        boolean hasValue = true;
-
-                        @Override
-                        public boolean hasNext() {
-                            return hasValue;
-                        }
+                    }
 
-                        @Override
-                        public String next() {
-                            hasValue = false;
-                            return (String) extraRequiredValue.getValue();
+                    List<CompletableFuture<?>> batches = new ArrayList<>();
+                    for (int start = 0; start < builtItems.size(); start += MAX_BULK_CREATE_SIZE) {
+                        List<Integer> batch = builtItems.subList(start, Math.min(start + MAX_BULK_CREATE_SIZE, builtItems.size()));
+                        List<IssueInput> batchInputs = new ArrayList<>();
+                        for (int item : batch) {
+                            batchInputs.add(inputs.get(item).join());
                         }
+                        batches.add(requestLimiter.submit(() -> restClient.getIssueClient().createIssues(batchInputs))
+                                .handle((bulkResult, error) -> {
+                                    fillBulkResults(results, batch, bulkResult, error);
+                                    return null;
+                                }));
+                    }
+                    return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0]));
+                })
+                .thenApply(ignored -> Arrays.asList(results));
+    }
 
-                        @Override
-                        public void remove() {
+    /**
+     * Loads what the items of one project and issue type share before their inputs are built: the issue type, its
+     * fields and the users the items name. An unknown user or issue type is left for the items to report.
+     */
+    private void prepareFiling(String projectKey, String issueTypeKey, List<IssueCreationRequest> requests) {
+        JiraApiCallResult<Map<String, CimFieldInfo>> fields = getIssueTypeFieldsInternal(projectKey, issueTypeKey);
+        if (!fields.isSuccess()) {
+            throw new CompletionException(fields.getError());
+        }
+        if (fields.getResult() == null) {
+            return;
+        }
+        Set<String> usernames = new HashSet<>();
+        for (IssueCreationRequest request : requests) {
+            if (!request.getProjectKey().equals(projectKey) || !request.getIssueTypeKey().equals(issueTypeKey)) {
+                continue;
+            }
+            for (Map.Entry<String, Object> value : request.getExtraRequiredValues().entrySet()) {
+                if (value.getValue() instanceof String && isUserField(projectKey, issueTypeKey, value.getKey())) {
+                    usernames.add((String) value.getValue());
+                }
+            }
+        }
+        //the resolved users, unknown ones included, are cached for the items
+        CompletableFuture.allOf(lookupUsers(usernames).values().toArray(new CompletableFuture[0])).join();
+    }
 
-                        }
-                    });
-                } else if (extraRequiredValue.getKey().equals(FIX_VERSIONS_FIELD_NAME)) {
-                    issueInputBuilder.setFixVersionsNames(() -> new Iterator<>() {
-                        boolean hasValue = true;
-
-                        @Override
-                        public boolean hasNext() {
-                            return hasValue;
-                        }
+    private static void fillBulkResults(IssueCreationResult[] results, List<Integer> batch,
+                                        BulkOperationResult<BasicIssue> bulkResult, Throwable error) {
+        if (error != null) {
+            String errorMessage = getFilingErrorMessage(error);
+            for (int item : batch) {
+                results[item] = new IssueCreationResult(errorMessage);
+            }
+            return;
+        }
 
-                        @Override
-                        public String next() {
-                            hasValue = false;
-                            return (String) extraRequiredValue.getValue();
-                        }
+        //the created issues are listed in the order of the batch, the failed elements are numbered within it
+        Map<Integer, String> failedElements = new HashMap<>();
+        for (BulkOperationErrorResult elementError : bulkResult.getErrors()) {
+            failedElements.put(elementError.getFailedElementNumber(), getErrorMessage(elementError.getElementErrors()));
+        }
+        Iterator<BasicIssue> createdIssues = bulkResult.getIssues().iterator();
+        for (int i = 0; i < batch.size(); i++) {
+            if (failedElements.containsKey(i)) {
+                results[batch.get(i)] = new IssueCreationResult(failedElements.get(i));
+            } else if (createdIssues.hasNext()) {
+                results[batch.get(i)] = new IssueCreationResult(createdIssues.next());
+            } else {
+                results[batch.get(i)] = new IssueCreationResult(BULK_RESULT_MISSING);
+            }
+        }
+    }
 
-                        @Override
-                        public void remove() {
+    private static String getErrorMessage(ErrorCollection errors) {
+        List<String> messages = new ArrayList<>(errors.getErrorMessages());
+        for (Map.Entry<String, String> fieldError : errors.getErrors().entrySet()) {
+            messages.add(fieldError.getKey() + ": " + fieldError.getValue());
+        }
+        return String.join("\n", messages);
+    }
 
-                        }
-                    });
-                } else if (extraRequiredValue.getKey().equals(ASSIGNEE_FIELD_NAME)) {
-                    issueInputBuilder.setFieldInput(getUserFieldInput(IssueFieldId.ASSIGNEE_FIELD.id, (String) extraRequiredValue.getValue()));
-                } else if (extraRequiredValue.getKey().equals(PARENT_FIELD_NAME)) {
-                    Map<String, Object> parent = new HashMap<>();
-                    parent.put("key", extraRequiredValue.getValue());
-                    FieldInput parentField = new FieldInput(PARENT_FIELD_NAME, new ComplexIssueInputFieldValue(parent));
-                    issueInputBuilder.setFieldInput(parentField);
-                } else if (extraRequiredValue.getKey().equals(RESOLUTION_FIELD_NAME)) {
-                    Map<String, Object> customOptionValue = new HashMap<>();
-                    customOptionValue.put(NAME_FIELD_NAME, extraRequiredValue.getValue());
-                    issueInputBuilder.setFieldValue(extraRequiredValue.getKey(), new ComplexIssueInputFieldValue(customOptionValue));
-                } else if (extraRequiredValue.getKey().equals(IssueFieldId.REPORTER_FIELD.id)) {
-                    issueInputBuilder.setFieldInput(getUserFieldInput(IssueFieldId.REPORTER_FIELD.id, (String) extraRequiredValue.getValue()));
-                } else if (isFieldWithPredefinedValues(projectKey, issueTypeKey, extraRequiredValue.getKey())) {
-                    List<ComplexIssueInputFieldValue> fieldValueList = new ArrayList<>();
-                    String[] values = (String[]) extraRequiredValue.getValue();
-                    for (String value : values) {
-                        Map<String, Object> valueMap = new HashMap<>();
-                        valueMap.put(VALUE_FIELD_NAME, value);
-                        fieldValueList.add(new ComplexIssueInputFieldValue(valueMap));
-                    }
+    private static String getFilingErrorMessage(Throwable error) {
+        Throwable cause = error instanceof CompletionException || error instanceof ExecutionException ? error.getCause() : error;
+        String errorMessage = cause.getMessage();
+        if (errorMessage != null && errorMessage.contains(INCORRECT_PROTOCOL_ERROR_CODE)) {
+            errorMessage += INCORRECT_PROTOCOL_IN_THE_JIRA_URL;
+        }
+        return errorMessage;
+    }
+
+    private IssueInput buildIssueInput(String projectKey, String issueTypeKey, String summary, String description,
+                                       Map<String, Object> extraRequiredValues) throws Exception {
+        //https://bitbucket.org/atlassian/jira-rest-java-client/src/75a64c9d81aad7d8bd9beb11e098148407b13cae/test/src/test/java/samples/Example1.java?at=master
+        JiraApiCallResult<IssueType> issueType = getIssueType(projectKey, issueTypeKey);
+        if (issueType == null) {
+            throw new IssueRejectedException(String.format(ISSUE_TYPE_NOT_FOUND, issueTypeKey, projectKey));
+        }
+        if (!issueType.isSuccess()) {
+            throw new Exception(issueType.getError().getMessage());
+        }
+
+        IssueInputBuilder issueInputBuilder = new IssueInputBuilder(projectKey, issueType.getResult().getId());
+        issueInputBuilder.setIssueType(issueType.getResult());
+        issueInputBuilder.setProjectKey(projectKey);
+        issueInputBuilder.setSummary(summary);
+        issueInputBuilder.setDescription(description);
+        //all user fields of the issue are resolved at once, before the issue input is built
+        Map<String, String> userFields = new HashMap<>();
+        for (Map.Entry<String, Object> extraRequiredValue : extraRequiredValues.entrySet()) {
+            if (extraRequiredValue.getValue() instanceof String &&
+                    isUserField(projectKey, issueTypeKey, extraRequiredValue.getKey())) {
+                userFields.put(extraRequiredValue.getKey(), (String) extraRequiredValue.getValue());
+            }
+        }
+        Map<String, User> users = resolveUsers(userFields.values());
+        for (final Map.Entry<String, Object> extraRequiredValue : extraRequiredValues.entrySet()) {
+            if (extraRequiredValue.getKey().equals(PRIORITY_FIELD_NAME)) {
+                issueInputBuilder.setPriority(getPriorityByName((String) extraRequiredValue.getValue()));
+            } else if (extraRequiredValue.getKey().equals(COMPONENTS_FIELD_NAME) ||
+                    extraRequiredValue.getKey().equals(VERSIONS_FIELD_NAME) ||
+                    extraRequiredValue.getKey().equals(FIX_VERSIONS_FIELD_NAME)) {
+                issueInputBuilder.setFieldValue(extraRequiredValue.getKey(), List.of(getNamedValueInput(projectKey, issueTypeKey,
+                        extraRequiredValue.getKey(), (String) extraRequiredValue.getValue())));
+            } else if (userFields.containsKey(extraRequiredValue.getKey())) {
+                issueInputBuilder.setFieldInput(getUserFieldInput(extraRequiredValue.getKey(),
+                        users.get(userFields.get(extraRequiredValue.getKey()))));
+            } else if (extraRequiredValue.getKey().equals(PARENT_FIELD_NAME)) {
+                Map<String, Object> parent = new HashMap<>();
+                parent.put("key", extraRequiredValue.getValue());
+                FieldInput parentField = new FieldInput(PARENT_FIELD_NAME, new ComplexIssueInputFieldValue(parent));
+                issueInputBuilder.setFieldInput(parentField);
+            } else if (extraRequiredValue.getKey().equals(RESOLUTION_FIELD_NAME)) {
+                Map<String, Object> customOptionValue = new HashMap<>();
+                customOptionValue.put(NAME_FIELD_NAME, extraRequiredValue.getValue());
+                issueInputBuilder.setFieldValue(extraRequiredValue.getKey(), new ComplexIssueInputFieldValue(customOptionValue));
+            } else if (isFieldWithPredefinedValues(projectKey, issueTypeKey, extraRequiredValue.getKey())) {
+                List<ComplexIssueInputFieldValue> fieldValueList = new ArrayList<>();
+                //multi-select lists give an array, combos and autocomplete fields give the typed text
+                boolean isMultiValue = extraRequiredValue.getValue() instanceof String[];
+                boolean isArrayValue = !isMultiValue && isArrayValue(projectKey, issueTypeKey, extraRequiredValue.getKey());
+                String[] values = isMultiValue ? (String[]) extraRequiredValue.getValue()
+                        : isArrayValue ? ((String) extraRequiredValue.getValue()).split("\\s*,\\s*")
+                        : new String[]{(String) extraRequiredValue.getValue()};
+                for (String value : values) {
+                    Map<String, Object> valueMap = new HashMap<>();
+                    valueMap.put(VALUE_FIELD_NAME, value);
+                    fieldValueList.add(new ComplexIssueInputFieldValue(valueMap));
+                }
+                if (isMultiValue || isArrayValue) {
                     issueInputBuilder.setFieldValue(extraRequiredValue.getKey(), fieldValueList);
-                } else if (isArrayValue(projectKey, issueTypeKey, extraRequiredValue.getKey())) {
-                    issueInputBuilder.setFieldValue(extraRequiredValue.getKey(), Arrays.asList(((String) extraRequiredValue.getValue()).split("\\s*,\\s*")));
                 } else {
-                    issueInputBuilder.setFieldValue(extraRequiredValue.getKey(), extraRequiredValue.getValue());
+                    issueInputBuilder.setFieldValue(extraRequiredValue.getKey(), fieldValueList.get(0));
                 }
+            } else if (isArrayValue(projectKey, issueTypeKey, extraRequiredValue.getKey())) {
+                issueInputBuilder.setFieldValue(extraRequiredValue.getKey(), Arrays.asList(((String) extraRequiredValue.getValue()).split("\\s*,\\s*")));
+            } else {
+                issueInputBuilder.setFieldValue(extraRequiredValue.getKey(), extraRequiredValue.getValue());
             }
-            Promise<BasicIssue> issue = restClient.getIssueClient().createIssue(issueInputBuilder.build());
-            basicIssue = issue.get();
-        } catch (InterruptedException | ExecutionException e) {
-            String errorMessage = e.getMessage();
-            if (errorMessage.contains(INCORRECT_PROTOCOL_ERROR_CODE)) {
-                errorMessage += INCORRECT_PROTOCOL_IN_THE_JIRA_URL;
-            }
-            return new IssueCreationResult(errorMessage);
-        } catch (Exception e) {
-            return new IssueCreationResult(e.getMessage());
         }
-
-        return new IssueCreationResult(basicIssue);
+        return issueInputBuilder.build();
     }
 
-    private FieldInput getUserFieldInput(String key, String value) throws Exception {
+    private FieldInput getUserFieldInput(String key, User user) {
         ComplexIssueInputFieldValue complexIssueInputFieldValue;
-        User user = getUser(value);
         String username = user.getName();
         if (username != null) {
             complexIssueInputFieldValue = ComplexIssueInputFieldValue.with("name", username);
@@ -480,24 +1552,59 @@ public class JiraProvider implements SimpleBugTrackerProvider {
         return new FieldInput(key, complexIssueInputFieldValue);
     }
 
-    private User getUser(String username) throws Exception {
-        User user = null;
+    private boolean isUserField(String projectKey, String issueTypeKey, String fieldName) {
+        if (fieldName.equals(ASSIGNEE_FIELD_NAME) || fieldName.equals(IssueFieldId.REPORTER_FIELD.id)) {
+            return true;
+        }
+        CimFieldInfo fieldInfo = getFieldInfo(projectKey, issueTypeKey, fieldName);
+        return fieldInfo != null && fieldInfo.getSchema() != null && USER_FIELD_TYPE.equals(fieldInfo.getSchema().getType());
+    }
+
+    /**
+     * Resolves user names to JIRA users, searching the ones not cached yet concurrently.
+     * Unknown names are remembered for a short while too, so a retried filing fails without searching again.
+     */
+    private Map<String, User> resolveUsers(Collection<String> usernames) throws Exception {
+        Map<String, User> users = new HashMap<>();
+        for (Map.Entry<String, CompletableFuture<ResolvedUser>> lookup : lookupUsers(usernames).entrySet()) {
+            User user = lookup.getValue().get().user;
+            if (user == null) {
+                throw new IssueRejectedException(String.format(USER_NAME_NOT_FOUND, lookup.getKey()));
+            }
+            users.put(lookup.getKey(), user);
+        }
+        return users;
+    }
+
+    private Map<String, CompletableFuture<ResolvedUser>> lookupUsers(Collection<String> usernames) {
+        Map<String, CompletableFuture<ResolvedUser>> lookups = new LinkedHashMap<>();
+        for (String username : usernames) {
+            if (lookups.containsKey(username)) {
+                continue;
+            }
+            ResolvedUser cachedUser = resolvedUsers.getIfPresent(username);
+            if (cachedUser != null && !cachedUser.isExpired(TimeUnit.MINUTES.toMillis(bugTrackerSettings.getMetadataCacheTtl()))) {
+                lookups.put(username, CompletableFuture.completedFuture(cachedUser));
+            } else {
+                lookups.put(username, requestLimiter.submit(() -> searchUser(username)).thenApply(user -> {
+                    ResolvedUser resolvedUser = new ResolvedUser(user);
+                    resolvedUsers.put(username, resolvedUser);
+                    return resolvedUser;
+                }));
+            }
+        }
+        return lookups;
+    }
+
+    private Promise<User> searchUser(String username) {
         if (restClient instanceof AsynchronousJiraRestClientEx) {
             AsynchronousUserSearchRestClient userSearchRestClient = ((AsynchronousJiraRestClientEx) restClient).getUserSearchRestClient();
-            user = userSearchRestClient.getUser(username).get();
+            return userSearchRestClient.getUser(username);
         } else if (restClient instanceof AsynchronousJiraRestClientServerEx) {
             AsynchronousUserSearchRestClientExt userSearchRestClientExt = ((AsynchronousJiraRestClientServerEx) restClient).getUserSearchRestClient();
-            user = userSearchRestClientExt.getUser(username).get();
-        }
-        if (user == null) {
-            throw new Exception(String.format(USER_NAME_NOT_FOUND, username));
+            return userSearchRestClientExt.getUser(username);
         }
-        return user;
-    }
-
-    private String getUserName(String username) throws Exception {
-        User user = getUser(username);
-        return user.getName();
+        return Promises.promise(null);
     }
 
     protected void finalize() throws Throwable {
@@ -511,37 +1618,46 @@ public class JiraProvider implements SimpleBugTrackerProvider {
 
     @Override
     public AttachmentAddingResult attachFile(URI attachmentUri, String fileName, InputStream inputStream) {
+        return attachFileAsync(attachmentUri, fileName, inputStream).join();
+    }
+
+    @Override
+    public AttachmentAddingResult attachFile(URI attachmentUri, String filePath) {
+        return attachFileAsync(attachmentUri, filePath).join();
+    }
+
+    @Override
+    public CompletableFuture<AttachmentAddingResult> attachFileAsync(URI attachmentUri, String fileName, InputStream inputStream) {
         if (attachmentUri == null) {
-            return new AttachmentAddingResult(BUG_TRACKER_ISSUE_KEY_NOT_SPECIFIED);
+            return CompletableFuture.completedFuture(new AttachmentAddingResult(BUG_TRACKER_ISSUE_KEY_NOT_SPECIFIED));
         }
         if (StringUtils.isNullOrEmpty(fileName)) {
-            return new AttachmentAddingResult(BUG_TRACKER_FILE_NAME_NOT_SPECIFIED);
+            return CompletableFuture.completedFuture(new AttachmentAddingResult(BUG_TRACKER_FILE_NAME_NOT_SPECIFIED));
         }
 
-        try {
-            restClient.getIssueClient().addAttachment(attachmentUri, inputStream, fileName).get();
-        } catch (InterruptedException | ExecutionException e) {
-            return new AttachmentAddingResult(e.getMessage());
-        }
-
-        return new AttachmentAddingResult();//everything is ok
+        return toAttachmentResult(requestLimiter.submit(() -> restClient.getIssueClient().addAttachment(attachmentUri, inputStream, fileName)));
     }
 
     @Override
-    public AttachmentAddingResult attachFile(URI attachmentUri, String filePath) {
+    public CompletableFuture<AttachmentAddingResult> attachFileAsync(URI attachmentUri, String filePath) {
         if (attachmentUri == null) {
-            return new AttachmentAddingResult(BUG_TRACKER_ISSUE_KEY_NOT_SPECIFIED);
+            return CompletableFuture.completedFuture(new AttachmentAddingResult(BUG_TRACKER_ISSUE_KEY_NOT_SPECIFIED));
         }
         if (StringUtils.isNullOrEmpty(filePath)) {
-            return new AttachmentAddingResult(BUG_TRACKER_INCORRECT_FILE_PATH);
+            return CompletableFuture.completedFuture(new AttachmentAddingResult(BUG_TRACKER_INCORRECT_FILE_PATH));
         }
         File file = new File(filePath);
-        if (!file.exists() && file.isFile()) {
-            return new AttachmentAddingResult(BUG_TRACKER_INCORRECT_FILE_PATH);
+        if (!file.isFile()) {
+            return CompletableFuture.completedFuture(new AttachmentAddingResult(BUG_TRACKER_INCORRECT_FILE_PATH));
         }
 
-        restClient.getIssueClient().addAttachments(attachmentUri, file);
-        return new AttachmentAddingResult();
+        return toAttachmentResult(requestLimiter.submit(() -> restClient.getIssueClient().addAttachments(attachmentUri, file)));
+    }
+
+    private static CompletableFuture<AttachmentAddingResult> toAttachmentResult(CompletableFuture<Void> upload) {
+        return upload
+                .thenApply(ignored -> new AttachmentAddingResult())
+                .exceptionally(e -> new AttachmentAddingResult(e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
     }
 
     private InputStream getExecutionLog() {
@@ -606,6 +1722,14 @@ public class JiraProvider implements SimpleBugTrackerProvider {
         return settingsComplete(settings);
     }
 
+    /**
+     * Checks the stored settings without creating a provider, which would ask the user to fill the missing ones in.
+     */
+    public static boolean isConfigured() {
+        BugTrackerSettings settings = readBugTrackerSettings();
+        return !(StringUtils.isNullOrEmpty(settings.getUrl()) || StringUtils.isNullOrEmpty(settings.getPassword()));
+    }
+
     public BugTrackerSettings getBugTrackerSettings() {
         if (bugTrackerSettings == null) {
             createBugTrackerSettings();
@@ -614,10 +1738,55 @@ public class JiraProvider implements SimpleBugTrackerProvider {
     }
 
     private void createBugTrackerSettings() {
+        bugTrackerSettings = readBugTrackerSettings();
+    }
+
+    private static BugTrackerSettings readBugTrackerSettings() {
         Settings soapuiSettings = SoapUI.getSettings();
-        bugTrackerSettings = new BugTrackerSettings(soapuiSettings.getString(BugTrackerPrefs.DEFAULT_URL, ""),
+        return new BugTrackerSettings(soapuiSettings.getString(BugTrackerPrefs.DEFAULT_URL, ""),
                 soapuiSettings.getString(BugTrackerPrefs.LOGIN, ""),
                 soapuiSettings.getString(BugTrackerPrefs.PASSWORD, ""),
-                soapuiSettings.getBoolean(BugTrackerPrefs.SKIP_VERSIONS, false));
+                soapuiSettings.getBoolean(BugTrackerPrefs.SKIP_VERSIONS, false),
+                soapuiSettings.getLong(BugTrackerPrefs.METADATA_CACHE_TTL, JiraPrefsFactory.DEFAULT_METADATA_CACHE_TTL),
+                (int) soapuiSettings.getLong(BugTrackerPrefs.MAX_PARALLEL_REQUESTS, JiraPrefsFactory.DEFAULT_MAX_PARALLEL_REQUESTS),
+                soapuiSettings.getLong(BugTrackerPrefs.METADATA_MEMORY_BUDGET, JiraPrefsFactory.DEFAULT_METADATA_MEMORY_BUDGET));
+    }
+
+    //refreshed allowed values, parsed for the cached fields and as JSON for the stored schema
+    private static class RefreshedValues {
+        private final JSONArray json;
+        private final List<Object> values;
+
+        RefreshedValues(JSONArray json, List<Object> values) {
+            this.json = json;
+            this.values = values;
+        }
+    }
+
+    private static class CachedSuggestions {
+        private final List<String> suggestions;
+        private final long fetchedAt = System.currentTimeMillis();
+
+        CachedSuggestions(List<String> suggestions) {
+            this.suggestions = suggestions;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() - fetchedAt > SUGGESTIONS_TTL;
+        }
+    }
+
+    private static class ResolvedUser {
+        private final User user;
+        private final long resolvedAt = System.currentTimeMillis();
+
+        ResolvedUser(User user) {
+            this.user = user;
+        }
+
+        boolean isExpired(long timeToLiveMillis) {
+            long age = System.currentTimeMillis() - resolvedAt;
+            return user == null ? age > UNKNOWN_USER_TTL : age > timeToLiveMillis;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+package com.smartbear.ready.plugin.jira.impl;
+
+import com.eviware.soapui.SoapUI;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the project list and the metadata of the most used project and item type pairs in the background,
+ * so the "Create JIRA item" dialogs open from a warm cache.
+ */
+public class MetadataWarmUpService {
+    private static final Logger logger = LoggerFactory.getLogger(MetadataWarmUpService.class);
+
+    private static final int PREFETCHED_USAGES = 3;
+    private static final long READY_API_POLL_INTERVAL = 5;
+    private static final long SETTINGS_SAVED_DELAY = 2;
+
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jira-metadata-warm-up");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private static ScheduledFuture<?> pendingWarmUp;
+
+    public static void scheduleStartupWarmUp() {
+        executor.schedule(MetadataWarmUpService::warmUpWhenReadyApiIsLoaded, READY_API_POLL_INTERVAL, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void scheduleWarmUp() {
+        if (pendingWarmUp != null) {
+            pendingWarmUp.cancel(false);
+        }
+        pendingWarmUp = executor.schedule(MetadataWarmUpService::warmUp, SETTINGS_SAVED_DELAY, TimeUnit.SECONDS);
+    }
+
+    private static void warmUpWhenReadyApiIsLoaded() {
+        if (SoapUI.getWorkspace() == null) {
+            executor.schedule(MetadataWarmUpService::warmUpWhenReadyApiIsLoaded, READY_API_POLL_INTERVAL, TimeUnit.SECONDS);
+            return;
+        }
+        warmUp();
+    }
+
+    private static void warmUp() {
+        //the provider asks for the settings in a dialog when they are missing, which must never happen in the background
+        if (!JiraProvider.isConfigured()) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            JiraProvider provider = JiraProvider.getBackgroundProvider();
+            if (provider == null || !provider.getProjectsPage(0, JiraProvider.PROJECTS_PAGE_SIZE).isSuccess()) {
+                return;
+            }
+            for (UsageHistory.Entry usage : UsageHistory.getTopEntries(PREFETCHED_USAGES)) {
+                provider.getListOfProjectIssueTypes(usage.getProjectKey());
+                provider.getIssueTypeFields(usage.getProjectKey(), usage.getIssueType());
+            }
+            logger.info("[MetadataWarmUpService].[warmUp] JIRA metadata prefetched in {} ms", System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.warn("[MetadataWarmUpService].[warmUp] Unable to prefetch JIRA metadata: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.smartbear.ready.plugin.jira.impl;
+
+import com.atlassian.jira.rest.client.api.domain.BasicProject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of the JIRA project list, as returned by the paginated project search.
+ */
+public class ProjectPage {
+    private final List<BasicProject> projects;
+    private final int startAt;
+    private final int nextStartAt;
+    private final boolean last;
+
+    public ProjectPage(List<BasicProject> projects, int startAt, boolean last) {
+        this(projects, startAt, startAt + projects.size(), last);
+    }
+
+    /**
+     * A page filtered on the client side, where the next page starts after every project that was looked at.
+     */
+    public ProjectPage(List<BasicProject> projects, int startAt, int nextStartAt, boolean last) {
+        this.projects = projects;
+        this.startAt = startAt;
+        this.nextStartAt = nextStartAt;
+        this.last = last;
+    }
+
+    public List<BasicProject> getProjects() {
+        return projects;
+    }
+
+    public List<String> getProjectKeys() {
+        List<String> keys = new ArrayList<>(projects.size());
+        for (BasicProject project : projects) {
+            keys.add(project.getKey());
+        }
+        return keys;
+    }
+
+    public int getStartAt() {
+        return startAt;
+    }
+
+    public int getNextStartAt() {
+        return nextStartAt;
+    }
+
+    public boolean isLast() {
+        return last;
+    }
+}
@@ -0,0 +1,45 @@
+package com.smartbear.ready.plugin.jira.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the bursts of settings changes made in the preferences form and applies them to the provider
+ * once they settle, on a background thread.
+ */
+public class SettingsChangeMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(SettingsChangeMonitor.class);
+
+    private static final long SETTINGS_CHANGED_DELAY = 1;
+
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jira-settings-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static ScheduledFuture<?> pendingCheck;
+
+    public static synchronized void settingsChanged() {
+        if (pendingCheck != null) {
+            pendingCheck.cancel(false);
+        }
+        pendingCheck = executor.schedule(SettingsChangeMonitor::applySettings, SETTINGS_CHANGED_DELAY, TimeUnit.SECONDS);
+    }
+
+    private static void applySettings() {
+        try {
+            JiraProvider.applySettings();
+        } catch (RuntimeException e) {
+            logger.warn("[SettingsChangeMonitor].[applySettings] Unable to apply JIRA settings: {}", e.getMessage());
+            JiraProvider.freeProvider();
+        }
+        MetadataWarmUpService.scheduleWarmUp();
+        //items waiting for these settings, or for a JIRA instance that was unreachable, are filed right away
+        IssueOutbox.scheduleDrain();
+    }
+}
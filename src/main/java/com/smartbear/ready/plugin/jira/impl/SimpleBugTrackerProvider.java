@@ -3,9 +3,15 @@ package com.smartbear.ready.plugin.jira.impl;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface SimpleBugTrackerProvider {
     IssueCreationResult createIssue(String projectKey, String issueKey, String summary, String description, Map<String, Object> extraRequiredValues);
     AttachmentAddingResult attachFile(URI attachmentUri, String fileName, InputStream inputStream);
     AttachmentAddingResult attachFile(URI attachmentUri, String filePath);
+
+    //non-blocking variants, their futures complete with a failed result instead of an exception
+    CompletableFuture<IssueCreationResult> createIssueAsync(String projectKey, String issueKey, String summary, String description, Map<String, Object> extraRequiredValues);
+    CompletableFuture<AttachmentAddingResult> attachFileAsync(URI attachmentUri, String fileName, InputStream inputStream);
+    CompletableFuture<AttachmentAddingResult> attachFileAsync(URI attachmentUri, String filePath);
 }
@@ -0,0 +1,107 @@
+package com.smartbear.ready.plugin.jira.impl;
+
+import com.eviware.soapui.SoapUI;
+import com.eviware.soapui.model.settings.Settings;
+import com.eviware.soapui.support.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small history of the project and item type pairs used to create JIRA items, ranked by how often
+ * and how recently they were used. It is kept in the ReadyAPI settings.
+ */
+public class UsageHistory {
+    private static final String USAGE_HISTORY = UsageHistory.class.getSimpleName() + "@" + "jira-usage-history";
+    private static final int MAX_ENTRIES = 10;
+    private static final String ENTRY_SEPARATOR = "\n";
+    private static final String FIELD_SEPARATOR = "\t";
+    private static final long RECENCY_HALF_LIFE = TimeUnit.DAYS.toMillis(7);
+
+    public static class Entry {
+        private final String projectKey;
+        private final String issueType;
+        private final int useCount;
+        private final long lastUsed;
+
+        Entry(String projectKey, String issueType, int useCount, long lastUsed) {
+            this.projectKey = projectKey;
+            this.issueType = issueType;
+            this.useCount = useCount;
+            this.lastUsed = lastUsed;
+        }
+
+        public String getProjectKey() {
+            return projectKey;
+        }
+
+        public String getIssueType() {
+            return issueType;
+        }
+
+        double getScore(long now) {
+            return useCount * Math.pow(0.5, (double) (now - lastUsed) / RECENCY_HALF_LIFE);
+        }
+    }
+
+    public static synchronized void recordUsage(String projectKey, String issueType) {
+        if (StringUtils.isNullOrEmpty(projectKey) || StringUtils.isNullOrEmpty(issueType)) {
+            return;
+        }
+        List<Entry> entries = load();
+        int useCount = 1;
+        for (Entry entry : entries) {
+            if (entry.getProjectKey().equals(projectKey) && entry.getIssueType().equals(issueType)) {
+                useCount += entry.useCount;
+                entries.remove(entry);
+                break;
+            }
+        }
+        entries.add(new Entry(projectKey, issueType, useCount, System.currentTimeMillis()));
+        save(rank(entries));
+    }
+
+    public static synchronized List<Entry> getTopEntries(int count) {
+        List<Entry> entries = rank(load());
+        return new ArrayList<>(entries.subList(0, Math.min(count, entries.size())));
+    }
+
+    private static List<Entry> rank(List<Entry> entries) {
+        long now = System.currentTimeMillis();
+        entries.sort(Comparator.comparingDouble((Entry entry) -> entry.getScore(now)).reversed());
+        return entries.size() > MAX_ENTRIES ? new ArrayList<>(entries.subList(0, MAX_ENTRIES)) : entries;
+    }
+
+    private static List<Entry> load() {
+        List<Entry> entries = new ArrayList<>();
+        Settings settings = SoapUI.getSettings();
+        String history = settings.getString(USAGE_HISTORY, "");
+        for (String line : history.split(ENTRY_SEPARATOR)) {
+            String[] fields = line.split(FIELD_SEPARATOR);
+            if (fields.length != 4) {
+                continue;
+            }
+            try {
+                entries.add(new Entry(fields[0], fields[1], Integer.parseInt(fields[2]), Long.parseLong(fields[3])));
+            } catch (NumberFormatException ignore) {
+            }
+        }
+        return entries;
+    }
+
+    private static void save(List<Entry> entries) {
+        StringBuilder history = new StringBuilder();
+        for (Entry entry : entries) {
+            if (history.length() > 0) {
+                history.append(ENTRY_SEPARATOR);
+            }
+            history.append(entry.getProjectKey()).append(FIELD_SEPARATOR)
+                    .append(entry.getIssueType()).append(FIELD_SEPARATOR)
+                    .append(entry.useCount).append(FIELD_SEPARATOR)
+                    .append(entry.lastUsed);
+        }
+        SoapUI.getSettings().setString(USAGE_HISTORY, history.toString());
+    }
+}
@@ -0,0 +1,60 @@
+package com.smartbear.ready.plugin.jira.parsers;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads the suggestions returned by the autoCompleteUrl of a field. JIRA answers with different shapes depending
+ * on the field (users, labels, issues, options), so the first array found is walked and every entry contributes
+ * its most specific display value.
+ */
+public class AutoCompleteSuggestionsJsonParser {
+    private static final String[] SUGGESTION_KEYS = {"value", "label", "name", "displayName", "key"};
+
+    public static List<String> parse(String payload) throws JSONException {
+        Set<String> suggestions = new LinkedHashSet<>();
+        String trimmedPayload = payload.trim();
+        collect(trimmedPayload.startsWith("[") ? new JSONArray(trimmedPayload) : new JSONObject(trimmedPayload), suggestions);
+        return new ArrayList<>(suggestions);
+    }
+
+    private static void collect(Object json, Set<String> suggestions) throws JSONException {
+        if (json instanceof JSONArray) {
+            JSONArray array = (JSONArray) json;
+            for (int i = 0; i < array.length(); i++) {
+                collect(array.get(i), suggestions);
+            }
+        } else if (json instanceof JSONObject) {
+            JSONObject object = (JSONObject) json;
+            //containers such as {"suggestions": [...]} or {"sections": [{"issues": [...]}]} hold the entries in arrays
+            boolean hasEntries = false;
+            Iterator keys = object.keys();
+            while (keys.hasNext()) {
+                Object child = object.get((String) keys.next());
+                if (child instanceof JSONArray) {
+                    hasEntries = true;
+                    collect(child, suggestions);
+                }
+            }
+            if (hasEntries) {
+                return;
+            }
+            for (String key : SUGGESTION_KEYS) {
+                String value = object.optString(key, null);
+                if (value != null && !value.isEmpty()) {
+                    suggestions.add(value);
+                    return;
+                }
+            }
+        } else if (json instanceof String) {
+            suggestions.add((String) json);
+        }
+    }
+}
@@ -1,17 +1,14 @@
 package com.smartbear.ready.plugin.jira.parsers;
 
 import com.atlassian.jira.rest.client.api.domain.CimFieldInfo;
-import com.atlassian.jira.rest.client.internal.json.GenericJsonArrayParser;
-import com.atlassian.jira.rest.client.internal.json.JsonObjectParser;
-import org.codehaus.jettison.json.JSONException;
-import org.codehaus.jettison.json.JSONObject;
 
-public class CimFieldInfoJsonParserServer implements JsonObjectParser<Iterable<CimFieldInfo>> {
-    private final GenericJsonArrayParser<CimFieldInfo> fieldInfoParser = new GenericJsonArrayParser<>(new CimFieldsInfoJsonParserServerExt());
+public class CimFieldInfoJsonParserServer extends MetadataPageJsonParser<CimFieldInfo> {
 
     public CimFieldInfoJsonParserServer() {
+        this(new CimFieldsInfoJsonParserServerExt());
     }
-    public Iterable<CimFieldInfo> parse(JSONObject json) throws JSONException {
-        return this.fieldInfoParser.parse(json.getJSONArray("values"));
+
+    private CimFieldInfoJsonParserServer(CimFieldsInfoJsonParserServerExt fieldParser) {
+        super("values", fieldParser, ifStreamingAvailable(() -> new CimFieldInfoJsonTokenParser("fieldId", fieldParser)));
     }
 }
@@ -0,0 +1,111 @@
+package com.smartbear.ready.plugin.jira.parsers;
+
+import com.atlassian.jira.rest.client.api.domain.CimFieldInfo;
+import com.atlassian.jira.rest.client.api.domain.FieldSchema;
+import com.atlassian.jira.rest.client.api.domain.StandardOperation;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.codehaus.jettison.json.JSONException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Streaming counterpart of {@link CimFieldsInfoJsonParserExt}. The allowed values are copied as raw JSON and
+ * handed to {@link LazyAllowedValues}, so they are only parsed when a form field shows them.
+ */
+public class CimFieldInfoJsonTokenParser implements JsonTokenParser<CimFieldInfo> {
+    private final String idKey;
+    private final CimFieldsInfoJsonParserExt fieldsInfoJsonParser;
+
+    public CimFieldInfoJsonTokenParser(String idKey, CimFieldsInfoJsonParserExt fieldsInfoJsonParser) {
+        this.idKey = idKey;
+        this.fieldsInfoJsonParser = fieldsInfoJsonParser;
+    }
+
+    @Override
+    public CimFieldInfo parse(JsonParser tokens) throws IOException {
+        JsonTokens.expect(tokens, JsonToken.START_OBJECT);
+        String id = null;
+        boolean required = false;
+        String name = null;
+        FieldSchema schema = null;
+        Set<StandardOperation> operations = new HashSet<>();
+        String rawAllowedValues = null;
+        URI autoCompleteUri = null;
+        while (tokens.nextToken() == JsonToken.FIELD_NAME) {
+            String field = tokens.getCurrentName();
+            JsonToken value = tokens.nextToken();
+            if (field.equals(idKey)) {
+                id = JsonTokens.getOptionalString(tokens);
+            } else if ("required".equals(field)) {
+                required = tokens.getValueAsBoolean();
+            } else if ("name".equals(field)) {
+                name = JsonTokens.getOptionalString(tokens);
+            } else if ("schema".equals(field)) {
+                schema = parseSchema(tokens);
+            } else if ("operations".equals(field) && value == JsonToken.START_ARRAY) {
+                operations = parseOperations(tokens);
+            } else if ("allowedValues".equals(field) && value == JsonToken.START_ARRAY) {
+                rawAllowedValues = JsonTokens.copyValue(tokens);
+            } else if ("autoCompleteUrl".equals(field) && value == JsonToken.VALUE_STRING) {
+                autoCompleteUri = URI.create(tokens.getText());
+            } else {
+                tokens.skipChildren();
+            }
+        }
+        if (schema == null) {
+            throw new JsonParseException(tokens, "Field " + id + " has no schema");
+        }
+        try {
+            return new CimFieldInfo(id, required, name, schema, operations,
+                    fieldsInfoJsonParser.createAllowedValues(rawAllowedValues, schema), autoCompleteUri);
+        } catch (JSONException e) {
+            throw new JsonParseException(tokens, e.getMessage(), e);
+        }
+    }
+
+    private static FieldSchema parseSchema(JsonParser tokens) throws IOException {
+        JsonTokens.expect(tokens, JsonToken.START_OBJECT);
+        String type = null;
+        String items = null;
+        String system = null;
+        String custom = null;
+        Long customId = null;
+        while (tokens.nextToken() == JsonToken.FIELD_NAME) {
+            String field = tokens.getCurrentName();
+            tokens.nextToken();
+            if ("type".equals(field)) {
+                type = JsonTokens.getOptionalString(tokens);
+            } else if ("items".equals(field)) {
+                items = JsonTokens.getOptionalString(tokens);
+            } else if ("system".equals(field)) {
+                system = JsonTokens.getOptionalString(tokens);
+            } else if ("custom".equals(field)) {
+                custom = JsonTokens.getOptionalString(tokens);
+            } else if ("customId".equals(field) && tokens.currentToken().isNumeric()) {
+                customId = tokens.getLongValue();
+            } else {
+                tokens.skipChildren();
+            }
+        }
+        return new FieldSchema(type, items, system, custom, customId);
+    }
+
+    private static Set<StandardOperation> parseOperations(JsonParser tokens) throws IOException {
+        Set<StandardOperation> operations = new HashSet<>();
+        while (tokens.nextToken() != JsonToken.END_ARRAY) {
+            if (tokens.currentToken().isStructStart()) {
+                tokens.skipChildren();
+                continue;
+            }
+            try {
+                operations.add(StandardOperation.valueOf(tokens.getValueAsString().toUpperCase()));
+            } catch (Exception ignore) {}
+        }
+        return operations;
+    }
+}
@@ -0,0 +1,21 @@
+package com.smartbear.ready.plugin.jira.parsers;
+
+import com.atlassian.jira.rest.client.api.domain.CimFieldInfo;
+import com.atlassian.jira.rest.client.internal.json.JsonParseUtil;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+/**
+ * Parses the fields of the paginated JIRA Cloud createmeta/{project}/issuetypes/{id} endpoint, which carry their id in "fieldId".
+ */
+public class CimFieldsInfoJsonParserCloudExt extends CimFieldsInfoJsonParserExt {
+
+    public CimFieldsInfoJsonParserCloudExt() {
+    }
+
+    @Override
+    public CimFieldInfo parse(JSONObject json) throws JSONException {
+        String id = JsonParseUtil.getOptionalString(json, "fieldId");
+        return super.parse(json, id);
+    }
+}
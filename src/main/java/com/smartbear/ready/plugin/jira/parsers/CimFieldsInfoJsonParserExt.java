@@ -5,7 +5,6 @@ import com.atlassian.jira.rest.client.api.domain.FieldSchema;
 import com.atlassian.jira.rest.client.api.domain.StandardOperation;
 import com.atlassian.jira.rest.client.internal.json.CimFieldsInfoJsonParser;
 import com.atlassian.jira.rest.client.internal.json.FieldSchemaJsonParser;
-import com.atlassian.jira.rest.client.internal.json.GenericJsonArrayParser;
 import com.atlassian.jira.rest.client.internal.json.JsonObjectParser;
 import com.atlassian.jira.rest.client.internal.json.JsonParseUtil;
 import org.codehaus.jettison.json.JSONArray;
@@ -49,17 +48,8 @@ public class CimFieldsInfoJsonParserExt extends CimFieldsInfoJsonParser {
             } else {
                 JsonObjectParser<Object> allowedValuesJsonParser = this.getParserFor(fieldSchema);
                 if (allowedValuesJsonParser != null) {
-                    boolean isProjectCF = "project".equals(fieldSchema.getType()) && "com.atlassian.jira.plugin.system.customfieldtypes:project".equals(fieldSchema.getCustom());
-                    boolean isVersionCF = "version".equals(fieldSchema.getType()) && "com.atlassian.jira.plugin.system.customfieldtypes:version".equals(fieldSchema.getCustom());
-                    boolean isMultiVersionCF = "array".equals(fieldSchema.getType()) && "version".equals(fieldSchema.getItems()) && "com.atlassian.jira.plugin.system.customfieldtypes:multiversion".equals(fieldSchema.getCustom());
-                    JSONArray valuesToParse;
-                    if ((isProjectCF || isVersionCF || isMultiVersionCF) && allowedValues.get(0) instanceof JSONArray) {
-                        valuesToParse = allowedValues.getJSONArray(0);
-                    } else {
-                        valuesToParse = allowedValues;
-                    }
-
-                    return GenericJsonArrayParser.create(allowedValuesJsonParser).parse(valuesToParse);
+                    //parsed only when a form field needs them
+                    return new LazyAllowedValues(allowedValues.toString(), allowedValuesJsonParser, hasNestedValues(fieldSchema));
                 } else {
                     int itemsLength = allowedValues.length();
                     List<Object> res = new ArrayList<>();
@@ -76,6 +66,27 @@ public class CimFieldsInfoJsonParserExt extends CimFieldsInfoJsonParser {
         }
     }
 
+    /**
+     * Builds the allowed values of a field from the raw JSON array copied by the streaming parser.
+     */
+    Iterable<Object> createAllowedValues(@Nullable String rawAllowedValues, FieldSchema fieldSchema) throws JSONException {
+        if (rawAllowedValues == null) {
+            return null;
+        }
+        JsonObjectParser<Object> allowedValuesJsonParser = this.getParserFor(fieldSchema);
+        if (allowedValuesJsonParser == null) {
+            return this.parseAllowedValues(new JSONArray(rawAllowedValues), fieldSchema);
+        }
+        return new LazyAllowedValues(rawAllowedValues, allowedValuesJsonParser, hasNestedValues(fieldSchema));
+    }
+
+    private static boolean hasNestedValues(FieldSchema fieldSchema) {
+        boolean isProjectCF = "project".equals(fieldSchema.getType()) && "com.atlassian.jira.plugin.system.customfieldtypes:project".equals(fieldSchema.getCustom());
+        boolean isVersionCF = "version".equals(fieldSchema.getType()) && "com.atlassian.jira.plugin.system.customfieldtypes:version".equals(fieldSchema.getCustom());
+        boolean isMultiVersionCF = "array".equals(fieldSchema.getType()) && "version".equals(fieldSchema.getItems()) && "com.atlassian.jira.plugin.system.customfieldtypes:multiversion".equals(fieldSchema.getCustom());
+        return isProjectCF || isVersionCF || isMultiVersionCF;
+    }
+
     private Set<StandardOperation> parseOperations(JSONArray operations) throws JSONException {
         int operationsCount = operations.length();
         Set<StandardOperation> res = Sets.newHashSetWithExpectedSize(operationsCount);
@@ -1,12 +1,11 @@
 package com.smartbear.ready.plugin.jira.parsers;
 
 import com.atlassian.jira.rest.client.api.domain.CimFieldInfo;
-import com.atlassian.jira.rest.client.internal.json.CimFieldsInfoJsonParser;
 import com.atlassian.jira.rest.client.internal.json.JsonParseUtil;
 import org.codehaus.jettison.json.JSONException;
 import org.codehaus.jettison.json.JSONObject;
 
-public class CimFieldsInfoJsonParserServerExt extends CimFieldsInfoJsonParser {
+public class CimFieldsInfoJsonParserServerExt extends CimFieldsInfoJsonParserExt {
 
     public CimFieldsInfoJsonParserServerExt() {
     }
@@ -0,0 +1,13 @@
+package com.smartbear.ready.plugin.jira.parsers;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * Builds a domain object straight from the tokens of a response, without an intermediate Jettison DOM.
+ * The parser is positioned on the first token of the value and is left on its last token.
+ */
+public interface JsonTokenParser<T> {
+    T parse(JsonParser tokens) throws IOException;
+}
@@ -0,0 +1,86 @@
+package com.smartbear.ready.plugin.jira.parsers;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JsonTokens {
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    public static JsonParser createParser(String payload) throws IOException {
+        return jsonFactory.createParser(payload);
+    }
+
+    public static void expect(JsonParser tokens, JsonToken token) throws IOException {
+        if (tokens.currentToken() != token) {
+            throw new JsonParseException(tokens, "Expected " + token + " but found " + tokens.currentToken());
+        }
+    }
+
+    /**
+     * Returns the text of a string value, null for a JSON null.
+     */
+    public static String getOptionalString(JsonParser tokens) throws IOException {
+        return tokens.currentToken() == JsonToken.VALUE_NULL ? null : tokens.getValueAsString();
+    }
+
+    /**
+     * Copies the current value, with everything it contains, back to JSON text.
+     */
+    public static String copyValue(JsonParser tokens) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = jsonFactory.createGenerator(writer)) {
+            generator.copyCurrentStructure(tokens);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Streams over a paginated response, the values being read by the given token parser.
+     */
+    public static <T> MetadataPage<T> parsePage(String payload, String valuesKey, JsonTokenParser<T> valueTokenParser) throws IOException {
+        try (JsonParser tokens = createParser(payload)) {
+            tokens.nextToken();
+            expect(tokens, JsonToken.START_OBJECT);
+            List<T> values = null;
+            int startAt = 0;
+            Integer maxResults = null;
+            Integer total = null;
+            Boolean isLast = null;
+            while (tokens.nextToken() == JsonToken.FIELD_NAME) {
+                String field = tokens.getCurrentName();
+                JsonToken value = tokens.nextToken();
+                if (valuesKey.equals(field) && value == JsonToken.START_ARRAY) {
+                    values = new ArrayList<>();
+                    while (tokens.nextToken() != JsonToken.END_ARRAY) {
+                        values.add(valueTokenParser.parse(tokens));
+                    }
+                } else if ("startAt".equals(field) && value.isNumeric()) {
+                    startAt = tokens.getIntValue();
+                } else if ("maxResults".equals(field) && value.isNumeric()) {
+                    maxResults = tokens.getIntValue();
+                } else if ("total".equals(field) && value.isNumeric()) {
+                    total = tokens.getIntValue();
+                } else if ("isLast".equals(field) && value.isBoolean()) {
+                    isLast = tokens.getBooleanValue();
+                } else {
+                    tokens.skipChildren();
+                }
+            }
+            if (values == null) {
+                throw new JsonParseException(tokens, "No \"" + valuesKey + "\" array in the page");
+            }
+            int pageSize = maxResults == null ? values.size() : maxResults;
+            boolean last = isLast != null ? isLast : values.size() < pageSize ||
+                    (total != null && startAt + values.size() >= total);
+            return new MetadataPage<>(values, startAt, pageSize, total, last);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.smartbear.ready.plugin.jira.parsers;
+
+import com.atlassian.jira.rest.client.internal.json.GenericJsonArrayParser;
+import com.atlassian.jira.rest.client.internal.json.JsonObjectParser;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Allowed values of a field kept as their raw JSON text until a form field iterates over them, so the
+ * thousands of versions and options of a large project are only parsed for the fields actually shown.
+ * Two instances are equal when their raw JSON and value parser are, which lets them be shared without parsing them.
+ */
+public class LazyAllowedValues implements Iterable<Object> {
+    private final String rawValues;
+    private final JsonObjectParser<Object> valueParser;
+    //project and version custom fields may wrap their values in a nested array
+    private final boolean nestedValues;
+    private List<Object> values;
+
+    public LazyAllowedValues(String rawValues, JsonObjectParser<Object> valueParser, boolean nestedValues) {
+        this.rawValues = rawValues;
+        this.valueParser = valueParser;
+        this.nestedValues = nestedValues;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return getValues().iterator();
+    }
+
+    public boolean isMaterialized() {
+        synchronized (this) {
+            return values != null;
+        }
+    }
+
+    /**
+     * Length of the raw JSON, a cheap measure of the memory held by values not parsed yet.
+     */
+    public int getRawLength() {
+        return rawValues.length();
+    }
+
+    private synchronized List<Object> getValues() {
+        if (values == null) {
+            try {
+                JSONArray valuesToParse = new JSONArray(rawValues);
+                if (nestedValues && valuesToParse.length() > 0 && valuesToParse.get(0) instanceof JSONArray) {
+                    valuesToParse = valuesToParse.getJSONArray(0);
+                }
+                List<Object> parsedValues = new ArrayList<>();
+                for (Object value : GenericJsonArrayParser.create(valueParser).parse(valuesToParse)) {
+                    parsedValues.add(value);
+                }
+                values = Collections.unmodifiableList(parsedValues);
+            } catch (JSONException e) {
+                throw new IllegalStateException("Unable to parse the allowed values of a JIRA field", e);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LazyAllowedValues that = (LazyAllowedValues) o;
+        return nestedValues == that.nestedValues && valueParser.getClass() == that.valueParser.getClass() &&
+                rawValues.equals(that.rawValues);
+    }
+
+    @Override
+    public int hashCode() {
+        return rawValues.hashCode();
+    }
+}
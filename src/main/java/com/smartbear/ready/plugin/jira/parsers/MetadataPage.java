@@ -0,0 +1,46 @@
+package com.smartbear.ready.plugin.jira.parsers;
+
+/**
+ * One page of a paginated createmeta response: issue types of a project or fields of an issue type.
+ */
+public class MetadataPage<T> {
+    private final Iterable<T> values;
+    private final int startAt;
+    private final int maxResults;
+    private final Integer total;
+    private final boolean last;
+
+    public MetadataPage(Iterable<T> values, int startAt, int maxResults, Integer total, boolean last) {
+        this.values = values;
+        this.startAt = startAt;
+        this.maxResults = maxResults;
+        this.total = total;
+        this.last = last;
+    }
+
+    public Iterable<T> getValues() {
+        return values;
+    }
+
+    public int getStartAt() {
+        return startAt;
+    }
+
+    /**
+     * The page size actually applied by JIRA, which may be lower than the requested one.
+     */
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    /**
+     * Total number of values, null when JIRA does not report it.
+     */
+    public Integer getTotal() {
+        return total;
+    }
+
+    public boolean isLast() {
+        return last;
+    }
+}
@@ -0,0 +1,73 @@
+package com.smartbear.ready.plugin.jira.parsers;
+
+import com.atlassian.jira.rest.client.internal.json.GenericJsonArrayParser;
+import com.atlassian.jira.rest.client.internal.json.JsonObjectParser;
+import com.atlassian.jira.rest.client.internal.json.JsonParseUtil;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+public class MetadataPageJsonParser<T> implements JsonObjectParser<MetadataPage<T>> {
+    private static final Logger logger = LoggerFactory.getLogger(MetadataPageJsonParser.class);
+    private static final String JACKSON_FACTORY_CLASS = "com.fasterxml.jackson.core.JsonFactory";
+
+    private final String valuesKey;
+    private final GenericJsonArrayParser<T> valuesParser;
+    private final JsonTokenParser<T> valueTokenParser;
+
+    public MetadataPageJsonParser(String valuesKey, JsonObjectParser<T> valueParser) {
+        this(valuesKey, valueParser, null);
+    }
+
+    public MetadataPageJsonParser(String valuesKey, JsonObjectParser<T> valueParser, JsonTokenParser<T> valueTokenParser) {
+        this.valuesKey = valuesKey;
+        this.valuesParser = GenericJsonArrayParser.create(valueParser);
+        this.valueTokenParser = valueTokenParser;
+    }
+
+    public MetadataPage<T> parse(JSONObject json) throws JSONException {
+        JSONArray values = json.getJSONArray(valuesKey);
+        int startAt = json.optInt("startAt", 0);
+        int maxResults = json.optInt("maxResults", values.length());
+        Integer total = JsonParseUtil.getOptionalInt(json, "total");
+        //isLast is not sent by JIRA Cloud nor by older JIRA Server versions, the page is then the last one when it is not full
+        boolean isLast = json.has("isLast") ? json.getBoolean("isLast") : values.length() < maxResults ||
+                (total != null && startAt + values.length() >= total);
+        return new MetadataPage<>(this.valuesParser.parse(values), startAt, maxResults, total, isLast);
+    }
+
+    /**
+     * Returns the token parser made by the supplier, or null when jackson-core, provided by ReadyAPI, cannot be linked.
+     * The token parser classes are first loaded by the supplier, and the streaming itself is left to JsonTokens, so this
+     * class never links jackson-core and a missing one is caught here.
+     */
+    public static <T> JsonTokenParser<T> ifStreamingAvailable(Supplier<JsonTokenParser<T>> tokenParser) {
+        try {
+            Class.forName(JACKSON_FACTORY_CLASS, false, MetadataPageJsonParser.class.getClassLoader());
+            return tokenParser.get();
+        } catch (ClassNotFoundException | LinkageError e) {
+            logger.warn("[MetadataPageJsonParser].[ifStreamingAvailable] Using the DOM parser, jackson-core is not available: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Parses the page from its JSON text, streaming over the tokens when a token parser is available.
+     * The Jettison parser remains the fallback when the streaming parser fails.
+     */
+    public MetadataPage<T> parse(String payload) throws JSONException {
+        if (valueTokenParser != null) {
+            try {
+                return JsonTokens.parsePage(payload, valuesKey, valueTokenParser);
+            } catch (IOException e) {
+                logger.warn("[MetadataPageJsonParser].[parse] Falling back to the DOM parser: {}", e.getMessage());
+            }
+        }
+        return parse(new JSONObject(payload));
+    }
+}
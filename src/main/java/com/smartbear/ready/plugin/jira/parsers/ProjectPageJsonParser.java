@@ -0,0 +1,27 @@
+package com.smartbear.ready.plugin.jira.parsers;
+
+import com.atlassian.jira.rest.client.api.domain.BasicProject;
+import com.atlassian.jira.rest.client.internal.json.BasicProjectJsonParser;
+import com.atlassian.jira.rest.client.internal.json.JsonObjectParser;
+import com.smartbear.ready.plugin.jira.impl.ProjectPage;
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProjectPageJsonParser implements JsonObjectParser<ProjectPage> {
+    private final BasicProjectJsonParser basicProjectJsonParser = new BasicProjectJsonParser();
+
+    public ProjectPage parse(JSONObject json) throws JSONException {
+        JSONArray values = json.getJSONArray("values");
+        List<BasicProject> projects = new ArrayList<>(values.length());
+        for (int i = 0; i < values.length(); i++) {
+            projects.add(basicProjectJsonParser.parse(values.getJSONObject(i)));
+        }
+        int startAt = json.optInt("startAt", 0);
+        boolean isLast = json.optBoolean("isLast", values.length() == 0);
+        return new ProjectPage(projects, startAt, isLast);
+    }
+}
@@ -15,5 +15,14 @@ public interface BugTrackerPrefs {
 
     @Setting(name = JiraPrefsFactory.SKIP_RELEASED_VERSIONS, description = JiraPrefsFactory.SKIP_RELEASED_VERSIONS_DESCRIPTION)
     String SKIP_VERSIONS = BugTrackerPrefs.class.getSimpleName() + "@" + "jira-skip-released-versions";
+
+    @Setting(name = JiraPrefsFactory.METADATA_CACHE_TTL, description = JiraPrefsFactory.METADATA_CACHE_TTL_DESCRIPTION)
+    String METADATA_CACHE_TTL = BugTrackerPrefs.class.getSimpleName() + "@" + "jira-metadata-cache-ttl";
+
+    @Setting(name = JiraPrefsFactory.MAX_PARALLEL_REQUESTS, description = JiraPrefsFactory.MAX_PARALLEL_REQUESTS_DESCRIPTION)
+    String MAX_PARALLEL_REQUESTS = BugTrackerPrefs.class.getSimpleName() + "@" + "jira-max-parallel-requests";
+
+    @Setting(name = JiraPrefsFactory.METADATA_MEMORY_BUDGET, description = JiraPrefsFactory.METADATA_MEMORY_BUDGET_DESCRIPTION)
+    String METADATA_MEMORY_BUDGET = BugTrackerPrefs.class.getSimpleName() + "@" + "jira-metadata-memory-budget";
 }
 
@@ -8,12 +8,19 @@ public class BugTrackerSettings {
     private String login;
     private String password;
     private boolean skipReleasedVersions;
+    private long metadataCacheTtl;
+    private int maxParallelRequests;
+    private long metadataMemoryBudget;
 
-    public BugTrackerSettings(String url, String login, String password, boolean skipReleasedVersions){
+    public BugTrackerSettings(String url, String login, String password, boolean skipReleasedVersions, long metadataCacheTtl,
+                              int maxParallelRequests, long metadataMemoryBudget){
         this.url = url;
         this.login = login;
         this.password = password;
         this.skipReleasedVersions = skipReleasedVersions;
+        this.metadataCacheTtl = metadataCacheTtl;
+        this.maxParallelRequests = maxParallelRequests;
+        this.metadataMemoryBudget = metadataMemoryBudget;
     }
 
     public String getUrl (){
@@ -29,4 +36,16 @@ public class BugTrackerSettings {
     }
 
     public boolean getSkipReleasedVersions () { return skipReleasedVersions; }
+
+    /**
+     * Minutes after which cached Jira metadata is revalidated in the background.
+     */
+    public long getMetadataCacheTtl () { return metadataCacheTtl; }
+
+    public int getMaxParallelRequests () { return maxParallelRequests; }
+
+    /**
+     * Megabytes of heap the in-memory project metadata may take before the least recently used projects are evicted.
+     */
+    public long getMetadataMemoryBudget () { return metadataMemoryBudget; }
 }
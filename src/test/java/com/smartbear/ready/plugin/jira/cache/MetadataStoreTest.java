@@ -0,0 +1,134 @@
+package com.smartbear.ready.plugin.jira.cache;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MetadataStoreTest {
+    private static Path home;
+    private static String userHome;
+
+    @BeforeAll
+    public static void useTemporaryHome() throws Exception {
+        //not deleted by the test, the store writer may still be saving in the background
+        home = Files.createTempDirectory("jira-plugin-test");
+        userHome = System.getProperty("user.home");
+        System.setProperty("user.home", home.toString());
+        //creating the salt deletes the stores found on disk, which must happen before the tests open theirs
+        MetadataStore.identityOf(null, "");
+    }
+
+    @AfterAll
+    public static void restoreHome() {
+        System.setProperty("user.home", userHome);
+    }
+
+    @Test
+    public void storesThePayloadWithItsValidators() {
+        MetadataStore store = openNewStore();
+        assertTrue(store.put("/project", "[{\"key\":\"PRJ\"}]", "\"etag-1\"", "Tue, 03 Oct 2023 10:00:00 GMT"));
+        MetadataStore.Entry entry = store.get("/project");
+        assertEquals("[{\"key\":\"PRJ\"}]", entry.getPayload());
+        assertEquals("\"etag-1\"", entry.getEtag());
+        assertEquals("Tue, 03 Oct 2023 10:00:00 GMT", entry.getLastModified());
+        assertFalse(entry.isExpired(60_000));
+        assertNull(store.get("/issuetype"));
+    }
+
+    @Test
+    public void listenersAreToldOnlyOfChangedEntries() {
+        MetadataStore store = openNewStore();
+        List<String> changed = new ArrayList<>();
+        store.addListener(changed::add);
+
+        assertTrue(store.put("/project", "[]"));
+        assertFalse(store.put("/project", "[]"));
+        assertTrue(changed.isEmpty());
+
+        assertTrue(store.put("/project", "[{\"key\":\"PRJ\"}]"));
+        assertEquals(List.of("/project"), changed);
+    }
+
+    @Test
+    public void replaceKeepsTheValidatorsUnlessTheEntryChangedMeanwhile() {
+        MetadataStore store = openNewStore();
+        List<String> changed = new ArrayList<>();
+        store.addListener(changed::add);
+        store.put("/project", "[]", "\"etag-1\"", null);
+        MetadataStore.Entry stored = store.get("/project");
+
+        assertTrue(store.replace("/project", stored.getContentHash(), "[{\"key\":\"PRJ\"}]"));
+        MetadataStore.Entry replaced = store.get("/project");
+        assertEquals("[{\"key\":\"PRJ\"}]", replaced.getPayload());
+        assertEquals("\"etag-1\"", replaced.getEtag());
+        assertEquals(stored.getStoredAt(), replaced.getStoredAt());
+        assertTrue(changed.isEmpty());
+
+        assertFalse(store.replace("/project", stored.getContentHash(), "[{\"key\":\"OTHER\"}]"));
+        assertEquals("[{\"key\":\"PRJ\"}]", store.get("/project").getPayload());
+    }
+
+    @Test
+    public void clearRemovesTheEntries() {
+        MetadataStore store = openNewStore();
+        store.put("/project", "[]");
+        store.put("/issuetype", "[]");
+        store.clear();
+        assertTrue(store.getKeys().isEmpty());
+        assertNull(store.get("/project"));
+    }
+
+    @Test
+    public void identitiesHashThePasswordWithTheInstallationSalt() throws Exception {
+        String identity = MetadataStore.identityOf("Admin ", "secret");
+        assertEquals(identity, MetadataStore.identityOf("admin", "secret"));
+        assertNotEquals(identity, MetadataStore.identityOf("admin", "changed"));
+        assertFalse(identity.contains(sha256("secret")));
+        assertTrue(identity.startsWith("user:admin:"));
+        assertEquals(32, Files.size(home.resolve(".soapuios").resolve("jira-plugin").resolve("installation.salt")));
+
+        String token = MetadataStore.identityOf(null, "token");
+        assertTrue(token.startsWith("token:"));
+        assertFalse(token.contains(sha256("token")));
+        assertEquals(MetadataStore.accountOf(null, "token"), token);
+    }
+
+    @Test
+    public void accountsOutliveAPasswordChange() {
+        assertEquals(MetadataStore.accountOf("admin", "secret"), MetadataStore.accountOf("Admin", "changed"));
+        assertNotEquals(MetadataStore.accountOf("admin", "secret"), MetadataStore.accountOf("other", "secret"));
+    }
+
+    @Test
+    public void targetsDependOnTheInstanceAndTheIdentity() {
+        String target = MetadataStore.targetOf("https://jira.example.com/", "user:admin:1");
+        assertEquals(target, MetadataStore.targetOf("HTTPS://jira.example.com", "user:admin:1"));
+        assertNotEquals(target, MetadataStore.targetOf("https://jira.example.com", "user:admin:2"));
+        assertNotEquals(target, MetadataStore.targetOf("https://other.example.com", "user:admin:1"));
+    }
+
+    private static MetadataStore openNewStore() {
+        //stores stay open for the session, each test gets its own
+        return MetadataStore.open("https://jira.example.com", "user:" + UUID.randomUUID());
+    }
+
+    private static String sha256(String value) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        return String.format("%064x", new BigInteger(1, digest));
+    }
+}
@@ -0,0 +1,161 @@
+package com.smartbear.ready.plugin.jira.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightCacheTest {
+    private static final int CALLERS = 8;
+
+    @Test
+    public void concurrentGetsShareOneLoad() throws Exception {
+        SingleFlightCache<String, Object> cache = new SingleFlightCache<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        Object loaded = new Object();
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            results.add(callers.submit(() -> cache.get("key", key -> {
+                loads.incrementAndGet();
+                loadStarted.countDown();
+                releaseLoad.await();
+                return loaded;
+            })));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < CALLERS; i++) {
+                results.add(callers.submit(() -> cache.get("key", key -> {
+                    loads.incrementAndGet();
+                    return new Object();
+                })));
+            }
+            releaseLoad.countDown();
+            for (Future<Object> result : results) {
+                assertSame(loaded, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertSame(loaded, cache.getIfPresent("key"));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failedLoadIsSharedAndNotCached() throws Exception {
+        SingleFlightCache<String, Object> cache = new SingleFlightCache<>();
+        IllegalStateException failure = new IllegalStateException("unreachable");
+        ExecutionException error = assertThrows(ExecutionException.class, () -> cache.get("key", key -> {
+            throw failure;
+        }));
+        assertSame(failure, error.getCause());
+        assertNull(cache.getIfPresent("key"));
+        assertEquals("loaded", cache.get("key", key -> "loaded"));
+    }
+
+    @Test
+    public void invalidateDuringLoadDropsTheLoadedValue() throws Exception {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> result = caller.submit(() -> cache.get("key", key -> {
+                loadStarted.countDown();
+                releaseLoad.await();
+                return "outdated";
+            }));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            cache.invalidate("key");
+            releaseLoad.countDown();
+            //the caller still gets its value, but it is never served to the next callers
+            assertEquals("outdated", result.get(5, TimeUnit.SECONDS));
+            assertNull(cache.getIfPresent("key"));
+            assertEquals("fresh", cache.get("key", key -> "fresh"));
+        } finally {
+            caller.shutdownNow();
+        }
+    }
+
+    @Test
+    public void putWithAnOldGenerationIsIgnored() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>();
+        long generation = cache.getGeneration();
+        cache.invalidateIf(key -> key.startsWith("other"));
+        cache.put("key", "outdated", generation);
+        assertNull(cache.getIfPresent("key"));
+        cache.put("key", "fresh", cache.getGeneration());
+        assertEquals("fresh", cache.getIfPresent("key"));
+    }
+
+    @Test
+    public void discardKeepsTheLoadsInFlight() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>();
+        cache.put("key", "expired");
+        long generation = cache.getGeneration();
+        cache.discard("key");
+        assertNull(cache.getIfPresent("key"));
+        assertEquals(generation, cache.getGeneration());
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedValuesBeyondTheBudget() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(10, String::length);
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        //"a" becomes the most recently used value, so "b" goes first
+        cache.getIfPresent("a");
+        cache.put("c", "cccc");
+        assertNull(cache.getIfPresent("b"));
+        assertEquals("aaaa", cache.getIfPresent("a"));
+        assertEquals("cccc", cache.getIfPresent("c"));
+        assertEquals(8, cache.getWeight());
+    }
+
+    @Test
+    public void neverKeepsAValueHeavierThanTheBudget() throws Exception {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(3, String::length);
+        cache.put("small", "sm");
+        assertEquals("too large", cache.get("large", key -> "too large"));
+        assertNull(cache.getIfPresent("large"));
+        assertEquals("sm", cache.getIfPresent("small"));
+    }
+
+    @Test
+    public void shrinkingTheBudgetEvicts() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>(100, String::length);
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        cache.setMaxWeight(5);
+        assertNull(cache.getIfPresent("a"));
+        assertEquals("bbbb", cache.getIfPresent("b"));
+        assertEquals(4, cache.getWeight());
+    }
+
+    @Test
+    public void invalidateIfKeepsTheOtherValues() {
+        SingleFlightCache<List<String>, String> cache = new SingleFlightCache<>(100, String::length);
+        cache.put(List.of("PRJ", "Bug"), "bug");
+        cache.put(List.of("PRJ", "Task"), "task");
+        cache.put(List.of("OTHER", "Bug"), "other");
+        cache.invalidateIf(key -> key.get(0).equals("PRJ"));
+        assertNull(cache.getIfPresent(List.of("PRJ", "Bug")));
+        assertNull(cache.getIfPresent(List.of("PRJ", "Task")));
+        assertEquals("other", cache.getIfPresent(List.of("OTHER", "Bug")));
+        assertEquals(5, cache.getWeight());
+    }
+}
@@ -0,0 +1,87 @@
+package com.smartbear.ready.plugin.jira.clients;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JiraCapabilitiesTest {
+
+    @Test
+    public void cloudUsesThePaginatedResources() throws Exception {
+        JiraCapabilities cloud = JiraCapabilities.parse("{\"baseUrl\":\"https://example.atlassian.net\"," +
+                "\"version\":\"1001.0.0-SNAPSHOT\",\"versionNumbers\":[1001,0,0],\"deploymentType\":\"Cloud\"}");
+        assertTrue(cloud.isCloud());
+        assertTrue(cloud.isProbed());
+        assertTrue(cloud.supportsPagedCreateMeta());
+        assertTrue(cloud.supportsProjectSearch());
+        assertFalse(cloud.supportsGlobalCreateMeta());
+        assertEquals("Cloud 1001.0.0-SNAPSHOT", cloud.toString());
+    }
+
+    @Test
+    public void serverBefore84UsesTheExpandedCreateMeta() throws Exception {
+        JiraCapabilities server = JiraCapabilities.parse("{\"version\":\"8.3.5\",\"versionNumbers\":[8,3,5],\"deploymentType\":\"Server\"}");
+        assertFalse(server.isCloud());
+        assertFalse(server.supportsPagedCreateMeta());
+        assertFalse(server.supportsProjectSearch());
+        assertTrue(server.supportsGlobalCreateMeta());
+    }
+
+    @Test
+    public void server8UsesThePaginatedCreateMetaAndStillListsCreatableProjects() throws Exception {
+        JiraCapabilities server = JiraCapabilities.parse("{\"version\":\"8.4.0\",\"versionNumbers\":[8,4],\"deploymentType\":\"Server\"}");
+        assertTrue(server.supportsPagedCreateMeta());
+        assertTrue(server.supportsGlobalCreateMeta());
+    }
+
+    @Test
+    public void server9NoLongerListsCreatableProjects() throws Exception {
+        JiraCapabilities server = JiraCapabilities.parse("{\"version\":\"9.4.2\",\"versionNumbers\":[9,4,2],\"deploymentType\":\"Server\"}");
+        assertTrue(server.supportsPagedCreateMeta());
+        assertFalse(server.supportsGlobalCreateMeta());
+    }
+
+    @Test
+    public void dataCenterIsServedAsServer() throws Exception {
+        JiraCapabilities dataCenter = JiraCapabilities.parse("{\"version\":\"9.12.0\",\"versionNumbers\":[9,12,0],\"deploymentType\":\"DataCenter\"}");
+        assertEquals(JiraCapabilities.SERVER, dataCenter.getDeploymentType());
+        assertFalse(dataCenter.isCloud());
+        assertFalse(dataCenter.supportsProjectSearch());
+    }
+
+    @Test
+    public void unknownServerVersionIsAssumedRecent() throws Exception {
+        JiraCapabilities server = JiraCapabilities.parse("{}");
+        assertEquals(JiraCapabilities.SERVER, server.getDeploymentType());
+        assertNull(server.getVersion());
+        assertTrue(server.supportsPagedCreateMeta());
+        assertFalse(server.supportsGlobalCreateMeta());
+        assertEquals("Server", server.toString());
+    }
+
+    @Test
+    public void hostNameGuessIsNotProbed() {
+        JiraCapabilities cloud = JiraCapabilities.fromHostName(URI.create("https://example.atlassian.net"));
+        JiraCapabilities server = JiraCapabilities.fromHostName(URI.create("https://jira.example.com/jira"));
+        assertTrue(cloud.isCloud());
+        assertFalse(cloud.isProbed());
+        assertFalse(server.isCloud());
+        assertFalse(server.isProbed());
+    }
+
+    @Test
+    public void clientsAreRebuiltOnlyWhenTheResourcesChange() throws Exception {
+        JiraCapabilities server83 = JiraCapabilities.parse("{\"versionNumbers\":[8,3],\"deploymentType\":\"Server\"}");
+        JiraCapabilities server84 = JiraCapabilities.parse("{\"versionNumbers\":[8,4],\"deploymentType\":\"Server\"}");
+        JiraCapabilities server94 = JiraCapabilities.parse("{\"versionNumbers\":[9,4],\"deploymentType\":\"Server\"}");
+        JiraCapabilities cloud = JiraCapabilities.fromHostName(URI.create("https://example.atlassian.net"));
+        assertFalse(server83.isServedLike(server84));
+        assertTrue(server84.isServedLike(server94));
+        assertFalse(server94.isServedLike(cloud));
+    }
+}
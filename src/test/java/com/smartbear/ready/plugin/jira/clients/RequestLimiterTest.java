@@ -0,0 +1,90 @@
+package com.smartbear.ready.plugin.jira.clients;
+
+import io.atlassian.util.concurrent.Promise;
+import io.atlassian.util.concurrent.Promises;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestLimiterTest {
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Test
+    public void neverRunsMoreRequestsThanTheLimit() throws Exception {
+        RequestLimiter limiter = new RequestLimiter(2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Integer>> responses = new ArrayList<>();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            CompletableFuture<Integer> response = new CompletableFuture<>();
+            responses.add(response);
+            results.add(limiter.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                return Promises.forCompletionStage(response.whenComplete((value, error) -> running.decrementAndGet()));
+            }));
+        }
+        assertEquals(2, running.get());
+        for (int i = 0; i < responses.size(); i++) {
+            responses.get(i).complete(i);
+            assertEquals(Integer.valueOf(i), results.get(i).get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    public void failedRequestsReleaseTheirSlot() throws Exception {
+        RequestLimiter limiter = new RequestLimiter(1);
+        CompletableFuture<String> failed = limiter.submit(() -> Promises.rejected(new IllegalStateException("unreachable")));
+        CompletableFuture<String> thrown = limiter.submit(() -> {
+            throw new IllegalStateException("not sent");
+        });
+        CompletableFuture<String> next = limiter.submit(() -> Promises.promise("sent"));
+        assertThrows(ExecutionException.class, () -> failed.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertThrows(ExecutionException.class, () -> thrown.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals("sent", next.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void queuedRequestsDoNotStartOnTheCompletingThread() throws Exception {
+        RequestLimiter limiter = new RequestLimiter(1);
+        CompletableFuture<String> response = new CompletableFuture<>();
+        limiter.submit(() -> Promises.forCompletionStage(response));
+        AtomicReference<Thread> startingThread = new AtomicReference<>();
+        CompletableFuture<String> queued = limiter.submit(() -> {
+            startingThread.set(Thread.currentThread());
+            return Promises.promise("queued");
+        });
+
+        Thread callbackThread = new Thread(() -> response.complete("first"), "http-callback");
+        callbackThread.start();
+        callbackThread.join();
+        assertEquals("queued", queued.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(startingThread.get() != callbackThread);
+    }
+
+    @Test
+    public void longQueuesOfCompletedPromisesDoNotOverflowTheStack() throws Exception {
+        RequestLimiter limiter = new RequestLimiter(1);
+        CompletableFuture<Integer> response = new CompletableFuture<>();
+        limiter.submit(() -> Promises.forCompletionStage(response));
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            Promise<Integer> cached = Promises.promise(i);
+            results.add(limiter.submit(() -> cached));
+        }
+        response.complete(-1);
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(TIMEOUT_SECONDS * 3, TimeUnit.SECONDS);
+        assertEquals(Integer.valueOf(49_999), results.get(results.size() - 1).get());
+    }
+}
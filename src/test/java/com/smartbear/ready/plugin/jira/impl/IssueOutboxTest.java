@@ -0,0 +1,269 @@
+package com.smartbear.ready.plugin.jira.impl;
+
+import com.atlassian.jira.rest.client.api.RestClientException;
+import com.atlassian.jira.rest.client.api.domain.BasicIssue;
+import com.atlassian.jira.rest.client.api.domain.util.ErrorCollection;
+import com.smartbear.ready.plugin.jira.impl.IssueOutbox.Entry;
+import com.smartbear.ready.plugin.jira.impl.IssueOutbox.Outcome;
+import com.smartbear.ready.plugin.jira.impl.IssueOutbox.State;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IssueOutboxTest {
+    private static final String TARGET = "https://jira.example.com|user";
+    private static final BasicIssue ISSUE = new BasicIssue(URI.create("https://jira.example.com/rest/api/2/issue/10001"), "PRJ-1", 10001L);
+
+    @TempDir
+    static Path home;
+    private static String userHome;
+    private static File journal;
+
+    @BeforeAll
+    public static void useTemporaryHome() {
+        //the outbox directory is resolved once, when the class is loaded
+        userHome = System.getProperty("user.home");
+        System.setProperty("user.home", home.toString());
+        journal = home.resolve(".soapuios").resolve("jira-plugin").resolve("outbox").resolve("journal.jsonl").toFile();
+    }
+
+    @AfterAll
+    public static void restoreHome() {
+        System.setProperty("user.home", userHome);
+    }
+
+    @BeforeEach
+    public void clearJournal() throws Exception {
+        Files.deleteIfExists(journal.toPath());
+        IssueOutbox.listeners.clear();
+    }
+
+    @Test
+    public void replaysACrashBetweenRecordAndCreateIssueWithALookup() throws Exception {
+        Entry entry = newEntry();
+        assertThrows(Crash.class, () -> IssueOutbox.send(new CrashingFiler(), entry));
+
+        List<Entry> replayed = IssueOutbox.readJournal();
+        assertEquals(1, replayed.size());
+        assertEquals(State.PENDING, replayed.get(0).getState());
+
+        //the issue was created before the crash, the lookup finds it
+        RecordingListener listener = new RecordingListener();
+        IssueOutbox.listeners.put(entry.getId(), listener);
+        FakeFiler filer = new FakeFiler(ISSUE);
+        assertEquals(Outcome.FINISHED, IssueOutbox.send(filer, replayed.get(0)));
+        assertEquals(1, filer.lookups.get());
+        assertEquals(0, filer.creations.get());
+        assertEquals("PRJ-1", listener.filed.getKey());
+
+        Entry finished = IssueOutbox.readJournal().get(0);
+        assertEquals(State.DONE, finished.getState());
+        assertEquals("PRJ-1", finished.getIssue().getKey());
+    }
+
+    @Test
+    public void createsTheIssueWhenTheLookupAfterACrashFindsNothing() throws Exception {
+        Entry entry = newEntry();
+        assertThrows(Crash.class, () -> IssueOutbox.send(new CrashingFiler(), entry));
+
+        RecordingListener listener = new RecordingListener();
+        IssueOutbox.listeners.put(entry.getId(), listener);
+        FakeFiler filer = new FakeFiler(null);
+        assertEquals(Outcome.FINISHED, IssueOutbox.send(filer, IssueOutbox.readJournal().get(0)));
+        assertEquals(1, filer.lookups.get());
+        assertEquals(1, filer.creations.get());
+        assertEquals("PRJ-1", listener.filed.getKey());
+    }
+
+    @Test
+    public void theFirstAttemptDoesNotLookTheIssueUp() throws Exception {
+        FakeFiler filer = new FakeFiler(ISSUE);
+        IssueOutbox.listeners.put("first", new RecordingListener());
+        assertEquals(Outcome.FINISHED, IssueOutbox.send(filer, newEntry("first")));
+        assertEquals(0, filer.lookups.get());
+        assertEquals(1, filer.creations.get());
+    }
+
+    @Test
+    public void refusedCredentialsWaitForNewSettings() throws Exception {
+        FakeFiler filer = new FakeFiler(null);
+        filer.failure = new RestClientException(List.of(new ErrorCollection(401, List.of("Unauthorized"), new HashMap<>())), 401);
+        Entry entry = newEntry();
+        assertEquals(Outcome.WAIT_FOR_SETTINGS, IssueOutbox.send(filer, entry));
+        assertEquals(State.PENDING, IssueOutbox.readJournal().get(0).getState());
+    }
+
+    @Test
+    public void unavailableJiraIsRetried() throws Exception {
+        FakeFiler filer = new FakeFiler(null);
+        filer.failure = new RestClientException(List.of(new ErrorCollection(429, List.of("Too many requests"), new HashMap<>())), 429);
+        assertEquals(Outcome.RETRY, IssueOutbox.send(filer, newEntry()));
+        assertEquals(State.PENDING, IssueOutbox.readJournal().get(0).getState());
+    }
+
+    @Test
+    public void rejectedItemsAreNotRetried() throws Exception {
+        FakeFiler filer = new FakeFiler(null);
+        filer.failure = new RestClientException(List.of(new ErrorCollection(400, List.of("Summary is required"), new HashMap<>())), 400);
+        Entry entry = newEntry();
+        RecordingListener listener = new RecordingListener();
+        IssueOutbox.listeners.put(entry.getId(), listener);
+        assertEquals(Outcome.FINISHED, IssueOutbox.send(filer, entry));
+        assertEquals(State.FAILED, IssueOutbox.readJournal().get(0).getState());
+        assertNotNull(listener.rejected);
+    }
+
+    @Test
+    public void replaySkipsARecordCutShortByACrash() throws Exception {
+        IssueOutbox.record(newEntry("complete"));
+        Files.write(journal.toPath(), "{\"id\":\"cut".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        List<Entry> replayed = IssueOutbox.readJournal();
+        assertEquals(1, replayed.size());
+        assertEquals("complete", replayed.get(0).getId());
+    }
+
+    @Test
+    public void compactionKeepsTheLiveAndRecentlyFinishedEntries() throws Exception {
+        Entry pending = newEntry("pending");
+        IssueOutbox.record(pending);
+        IssueOutbox.record(pending);
+        IssueOutbox.listeners.put("finished", new RecordingListener());
+        IssueOutbox.send(new FakeFiler(null), newEntry("finished"));
+        int lines = Files.readAllLines(journal.toPath()).size();
+
+        //a live entry is left in place until the journal grew
+        IssueOutbox.compact();
+        assertEquals(lines, Files.readAllLines(journal.toPath()).size());
+
+        IssueOutbox.listeners.put("pending", new RecordingListener());
+        IssueOutbox.send(new FakeFiler(null), pending);
+        IssueOutbox.compact();
+        List<String> kept = Files.readAllLines(journal.toPath());
+        assertEquals(2, kept.size());
+        List<Entry> replayed = IssueOutbox.readJournal();
+        assertEquals(State.DONE, replayed.get(0).getState());
+        assertEquals(State.DONE, replayed.get(1).getState());
+    }
+
+    @Test
+    public void compactionDropsTheJournalOnceEverythingFinishedLongAgo() throws Exception {
+        IssueOutbox.listeners.put("finished", new RecordingListener());
+        IssueOutbox.send(new FakeFiler(null), newEntry("finished"));
+        String finishedLongAgo = new String(Files.readAllBytes(journal.toPath()), StandardCharsets.UTF_8)
+                .replaceAll("\"finishedAt\":[0-9]+", "\"finishedAt\":1");
+        Files.write(journal.toPath(), finishedLongAgo.getBytes(StandardCharsets.UTF_8));
+
+        IssueOutbox.compact();
+        assertFalse(journal.exists());
+        assertTrue(IssueOutbox.readJournal().isEmpty());
+    }
+
+    private static Entry newEntry() {
+        return newEntry(UUID.randomUUID().toString());
+    }
+
+    private static Entry newEntry(String id) {
+        Map<String, Object> extraValues = new HashMap<>();
+        extraValues.put("priority", "Major");
+        extraValues.put("components", new String[] {"API", "UI"});
+        return new Entry(id, TARGET, System.currentTimeMillis(),
+                new IssueCreationRequest("PRJ", "Bug", "Login fails", "Steps to reproduce", extraValues));
+    }
+
+    private static class Crash extends Error {
+    }
+
+    private static class CrashingFiler implements IssueOutbox.Filer {
+        @Override
+        public CompletableFuture<BasicIssue> findIssueAsync(IssueCreationRequest request, String idempotencyKey, long filedSince) {
+            throw new AssertionError("the first attempt has nothing to look up");
+        }
+
+        @Override
+        public CompletableFuture<BasicIssue> createIssueAsync(IssueCreationRequest request, String idempotencyKey) {
+            //the process dies while the request is on the wire
+            throw new Crash();
+        }
+
+        @Override
+        public CompletableFuture<AttachmentAddingResult> attachFileAsync(URI attachmentUri, String fileName, InputStream inputStream) {
+            throw new AssertionError("nothing to attach");
+        }
+    }
+
+    private static class FakeFiler implements IssueOutbox.Filer {
+        private final BasicIssue existing;
+        private final AtomicInteger lookups = new AtomicInteger();
+        private final AtomicInteger creations = new AtomicInteger();
+        private RestClientException failure;
+
+        private FakeFiler(BasicIssue existing) {
+            this.existing = existing;
+        }
+
+        @Override
+        public CompletableFuture<BasicIssue> findIssueAsync(IssueCreationRequest request, String idempotencyKey, long filedSince) {
+            lookups.incrementAndGet();
+            return CompletableFuture.completedFuture(existing);
+        }
+
+        @Override
+        public CompletableFuture<BasicIssue> createIssueAsync(IssueCreationRequest request, String idempotencyKey) {
+            creations.incrementAndGet();
+            if (failure != null) {
+                return CompletableFuture.failedFuture(failure);
+            }
+            return CompletableFuture.completedFuture(ISSUE);
+        }
+
+        @Override
+        public CompletableFuture<AttachmentAddingResult> attachFileAsync(URI attachmentUri, String fileName, InputStream inputStream) {
+            return CompletableFuture.completedFuture(new AttachmentAddingResult());
+        }
+    }
+
+    private static class RecordingListener implements IssueOutbox.Listener {
+        private BasicIssue filed;
+        private String rejected;
+
+        @Override
+        public void retryScheduled(String error, long nextAttemptAt) {
+        }
+
+        @Override
+        public void filed(BasicIssue issue, String attachmentErrors) {
+            filed = issue;
+        }
+
+        @Override
+        public void waitingForSettings(String error) {
+        }
+
+        @Override
+        public void rejected(String error) {
+            rejected = error;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.smartbear.ready.plugin.jira.parsers;
+
+import com.atlassian.jira.rest.client.api.domain.CimFieldInfo;
+import com.atlassian.jira.rest.client.api.domain.FieldSchema;
+import org.codehaus.jettison.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CimFieldInfoJsonParserServerTest {
+    private static final String FIELDS = "[" +
+            "{\"required\":true,\"schema\":{\"type\":\"string\",\"system\":\"summary\"},\"name\":\"Summary\",\"fieldId\":\"summary\"," +
+            "\"hasDefaultValue\":false,\"operations\":[\"set\"]}," +
+            "{\"required\":false,\"schema\":{\"type\":\"array\",\"items\":\"version\",\"system\":\"fixVersions\"},\"name\":\"Fix Version/s\"," +
+            "\"fieldId\":\"fixVersions\",\"hasDefaultValue\":false,\"operations\":[\"set\",\"add\",\"remove\"],\"allowedValues\":[" +
+            "{\"self\":\"https://jira.example.com/rest/api/2/version/10000\",\"id\":\"10000\",\"description\":\"First \\\"release\\\"\"," +
+            "\"name\":\"1.0\",\"archived\":false,\"released\":true,\"releaseDate\":\"2023-05-04\",\"projectId\":10000}," +
+            "{\"self\":\"https://jira.example.com/rest/api/2/version/10001\",\"id\":\"10001\",\"name\":\"2.0 \\u00e9t\\u00e9\"," +
+            "\"archived\":false,\"released\":false,\"projectId\":10000}]}," +
+            "{\"required\":false,\"schema\":{\"type\":\"option\",\"custom\":\"com.atlassian.jira.plugin.system.customfieldtypes:select\"," +
+            "\"customId\":10100},\"name\":\"Environment\",\"fieldId\":\"customfield_10100\",\"operations\":[\"set\"],\"allowedValues\":[" +
+            "{\"self\":\"https://jira.example.com/rest/api/2/customFieldOption/10200\",\"value\":\"Staging\",\"id\":\"10200\"}," +
+            "{\"self\":\"https://jira.example.com/rest/api/2/customFieldOption/10201\",\"value\":\"Production\",\"id\":\"10201\"}]}," +
+            "{\"required\":false,\"schema\":{\"type\":\"user\",\"system\":\"assignee\"},\"name\":\"Assignee\",\"fieldId\":\"assignee\"," +
+            "\"autoCompleteUrl\":\"https://jira.example.com/rest/api/2/user/assignable/search?project=PRJ&username=\"," +
+            "\"operations\":[\"set\",\"unknown\"]}]";
+
+    @Test
+    public void tokenAndDomParsersReadTheSamePage() throws Exception {
+        String payload = "{\"maxResults\":50,\"startAt\":0,\"total\":4,\"isLast\":true,\"values\":" + FIELDS + "}";
+        assertSamePage(payload);
+    }
+
+    @Test
+    public void tokenAndDomParsersInferTheLastPageAlike() throws Exception {
+        //JIRA versions which do not send isLast
+        assertSamePage("{\"maxResults\":4,\"startAt\":0,\"total\":9,\"values\":" + FIELDS + "}");
+        assertSamePage("{\"maxResults\":4,\"startAt\":4,\"total\":8,\"values\":" + FIELDS + "}");
+        assertSamePage("{\"maxResults\":50,\"startAt\":0,\"values\":" + FIELDS + "}");
+    }
+
+    @Test
+    public void tokenParserLeavesTheAllowedValuesUnparsed() throws Exception {
+        String payload = "{\"maxResults\":50,\"startAt\":0,\"total\":4,\"isLast\":true,\"values\":" + FIELDS + "}";
+        List<CimFieldInfo> fields = toList(new CimFieldInfoJsonParserServer().parse(payload).getValues());
+        LazyAllowedValues versions = (LazyAllowedValues) fields.get(1).getAllowedValues();
+        assertFalse(versions.isMaterialized());
+        assertEquals(2, toList(versions).size());
+        assertTrue(versions.isMaterialized());
+        assertNull(fields.get(0).getAllowedValues());
+    }
+
+    private static void assertSamePage(String payload) throws Exception {
+        CimFieldInfoJsonParserServer parser = new CimFieldInfoJsonParserServer();
+        MetadataPage<CimFieldInfo> streamed = parser.parse(payload);
+        MetadataPage<CimFieldInfo> parsed = parser.parse(new JSONObject(payload));
+
+        assertEquals(parsed.getStartAt(), streamed.getStartAt());
+        assertEquals(parsed.getMaxResults(), streamed.getMaxResults());
+        assertEquals(parsed.getTotal(), streamed.getTotal());
+        assertEquals(parsed.isLast(), streamed.isLast());
+
+        List<CimFieldInfo> streamedFields = toList(streamed.getValues());
+        List<CimFieldInfo> parsedFields = toList(parsed.getValues());
+        assertEquals(parsedFields.size(), streamedFields.size());
+        for (int i = 0; i < parsedFields.size(); i++) {
+            assertSameField(parsedFields.get(i), streamedFields.get(i));
+        }
+    }
+
+    private static void assertSameField(CimFieldInfo expected, CimFieldInfo actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.isRequired(), actual.isRequired());
+        assertEquals(expected.getName(), actual.getName());
+        assertSameSchema(expected.getSchema(), actual.getSchema());
+        assertEquals(expected.getOperations(), actual.getOperations());
+        assertEquals(expected.getAutoCompleteUri(), actual.getAutoCompleteUri());
+        //the raw JSON differs in its escaping, the parsed values may not
+        if (expected.getAllowedValues() == null) {
+            assertNull(actual.getAllowedValues());
+        } else {
+            assertEquals(toList(expected.getAllowedValues()), toList(actual.getAllowedValues()));
+        }
+    }
+
+    private static void assertSameSchema(FieldSchema expected, FieldSchema actual) {
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getItems(), actual.getItems());
+        assertEquals(expected.getSystem(), actual.getSystem());
+        assertEquals(expected.getCustom(), actual.getCustom());
+        assertEquals(expected.getCustomId(), actual.getCustomId());
+    }
+
+    private static <T> List<T> toList(Iterable<T> values) {
+        List<T> list = new ArrayList<>();
+        values.forEach(list::add);
+        return list;
+    }
+}